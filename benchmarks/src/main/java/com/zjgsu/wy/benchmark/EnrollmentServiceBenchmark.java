@@ -0,0 +1,189 @@
+package com.zjgsu.wy.benchmark;
+
+import com.zjgsu.wy.enrollment.EnrollmentServiceApplication;
+import com.zjgsu.wy.enrollment.client.CatalogClient;
+import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.common.CourseKey;
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto;
+import com.zjgsu.wy.enrollment.dto.CourseDto;
+import com.zjgsu.wy.enrollment.dto.SeatReleaseDto;
+import com.zjgsu.wy.enrollment.dto.SeatReservationDto;
+import com.zjgsu.wy.enrollment.model.Enrollment;
+import com.zjgsu.wy.enrollment.model.Student;
+import com.zjgsu.wy.enrollment.repository.EnrollmentRepository;
+import com.zjgsu.wy.enrollment.repository.StudentRepository;
+import com.zjgsu.wy.enrollment.service.EnrollmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单门选课（EnrollmentService.enroll）基准
+ *
+ * 在内存 H2 上启动 enrollment-service 的服务层和数据访问层（不启动 Web 容器、不注册 Nacos），
+ * catalog-service 替换为进程内桩实现，测量的是学生校验、课程缓存、重复选课检查、
+ * 课表冲突索引和选课记录写入这一段本地开销，不含网络往返。
+ *
+ * 每次调用选一个新的（课程, 学生）组合；每轮迭代结束后清空选课记录，避免表无限增长。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnrollmentServiceBenchmark {
+
+    @Param({"1000"})
+    private int students;
+
+    @Param({"200"})
+    private int courses;
+
+    private ConfigurableApplicationContext context;
+
+    private EnrollmentService enrollmentService;
+
+    private EnrollmentRepository enrollmentRepository;
+
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=enrollment-benchmark")
+                .run();
+        enrollmentService = context.getBean(EnrollmentService.class);
+        enrollmentRepository = context.getBean(EnrollmentRepository.class);
+
+        List<Student> batch = new ArrayList<>(students);
+        for (int i = 0; i < students; i++) {
+            batch.add(new Student(studentId(i), "学生" + i, "计算机科学与技术", 2023, "s" + i + "@zjgsu.edu.cn"));
+        }
+        context.getBean(StudentRepository.class).saveAll(batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearEnrollments() {
+        enrollmentRepository.deleteAllInBatch();
+        sequence = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Enrollment enroll() {
+        long n = sequence++;
+        String courseId = String.format("%019d", 1 + n % courses);
+        String studentId = studentId((int) ((n / courses) % students));
+        return enrollmentService.enroll(courseId, studentId);
+    }
+
+    private static String studentId(int i) {
+        return String.valueOf(2023_000_000L + i);
+    }
+
+    /**
+     * 只扫描 enrollment-service 的组件，不包含启动类（不启用 Feign 客户端和 Nacos 注册）
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @ComponentScan(basePackageClasses = EnrollmentServiceApplication.class,
+            excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = EnrollmentServiceApplication.class))
+    @EntityScan(basePackageClasses = Enrollment.class)
+    @EnableJpaRepositories(basePackageClasses = EnrollmentRepository.class)
+    static class BenchmarkApplication {
+
+        @Bean
+        @Primary
+        CatalogClient stubCatalogClient() {
+            return new StubCatalogClient();
+        }
+    }
+
+    /**
+     * catalog-service 桩：所有课程都存在、容量充足、没有上课时间，预占总是成功
+     */
+    static class StubCatalogClient implements CatalogClient {
+
+        @Override
+        public ApiResponse<CourseDto> getCourse(CourseKey id) {
+            return ApiResponse.success(course(id.value()));
+        }
+
+        @Override
+        public ApiResponse<Map<String, CourseDto>> getCourses(List<String> ids) {
+            Map<String, CourseDto> result = new LinkedHashMap<>();
+            for (String id : ids) {
+                result.put(id, course(id));
+            }
+            return ApiResponse.success(result);
+        }
+
+        @Override
+        public ApiResponse<CourseChangeFeedDto> getCourseChanges(String cursor) {
+            return ApiResponse.success(null);
+        }
+
+        @Override
+        public ApiResponse<SeatReservationDto> reserveSeat(String id) {
+            return ApiResponse.success(new SeatReservationDto(id, true, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public ApiResponse<List<SeatReservationDto>> reserveSeats(List<String> ids) {
+            List<SeatReservationDto> result = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                result.add(new SeatReservationDto(id, true, Integer.MAX_VALUE));
+            }
+            return ApiResponse.success(result);
+        }
+
+        @Override
+        public ApiResponse<List<SeatReservationDto>> releaseSeats(List<SeatReleaseDto> releases) {
+            return ApiResponse.success(List.of());
+        }
+
+        private static CourseDto course(String id) {
+            CourseDto course = new CourseDto();
+            course.setId(id);
+            course.setCode(id);
+            course.setTitle("Course " + id);
+            course.setCapacity(Integer.MAX_VALUE);
+            course.setEnrolled(0);
+            return course;
+        }
+    }
+}
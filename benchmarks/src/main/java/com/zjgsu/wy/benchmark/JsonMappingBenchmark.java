@@ -0,0 +1,104 @@
+package com.zjgsu.wy.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zjgsu.wy.catalog.common.ApiResponse;
+import com.zjgsu.wy.catalog.model.Course;
+import com.zjgsu.wy.catalog.model.Instructor;
+import com.zjgsu.wy.catalog.model.ScheduleSlot;
+import com.zjgsu.wy.enrollment.model.Enrollment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应体 JSON 映射基准
+ *
+ * 以与 Spring Boot 默认配置一致的 ObjectMapper 序列化/反序列化 ApiResponse 包装的课程列表
+ * 和选课记录列表，覆盖列表接口（单条到一整页以上）的典型大小。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonMappingBenchmark {
+
+    private static final String[] DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"};
+
+    private static final TypeReference<ApiResponse<List<Course>>> COURSE_LIST =
+            new TypeReference<ApiResponse<List<Course>>>() {};
+
+    @Param({"1", "20", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private ApiResponse<List<Course>> courses;
+
+    private com.zjgsu.wy.enrollment.common.ApiResponse<List<Enrollment>> enrollments;
+
+    private byte[] coursesJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Course> courseList = new ArrayList<>(size);
+        List<Enrollment> enrollmentList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Course course = new Course(
+                    String.format("CS%04d", i),
+                    "分布式系统与云计算 " + i,
+                    new Instructor("T" + (i % 50), "教师" + (i % 50), "teacher" + (i % 50) + "@zjgsu.edu.cn"),
+                    new ScheduleSlot(DAYS[i % DAYS.length], "08:00", "09:40", 60),
+                    120);
+            course.setEnrolled(i % 120);
+            course.setCreatedAt(now);
+            course.setVersion((long) i);
+            courseList.add(course);
+
+            Enrollment enrollment = new Enrollment(course.getId(), String.format("2023%06d", i));
+            enrollment.setEnrolledAt(now);
+            enrollmentList.add(enrollment);
+        }
+        courses = ApiResponse.success(courseList);
+        enrollments = com.zjgsu.wy.enrollment.common.ApiResponse.success(enrollmentList);
+        coursesJson = objectMapper.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public byte[] serializeCourses() throws IOException {
+        return objectMapper.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public ApiResponse<List<Course>> deserializeCourses() throws IOException {
+        return objectMapper.readValue(coursesJson, COURSE_LIST);
+    }
+
+    @Benchmark
+    public byte[] serializeEnrollments() throws IOException {
+        return objectMapper.writeValueAsBytes(enrollments);
+    }
+}
@@ -0,0 +1,114 @@
+package com.zjgsu.wy.benchmark;
+
+import com.zjgsu.wy.gateway.util.JwtProperties;
+import com.zjgsu.wy.gateway.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 生成与解析基准
+ *
+ * perCallKey* 复现改造前的写法（每次调用派生密钥、构建解析器），
+ * 与复用预派生密钥和解析器的 JwtUtil 对比单个 Token 的开销。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    static final String SECRET = "courseCloudSecretKeyForJWTTokenGenerationMustBe256BitsOrMoreForHS512Algorithm";
+
+    private JwtUtil gatewayJwtUtil;
+
+    private com.zjgsu.wy.user.util.JwtUtil userJwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        gatewayJwtUtil = new JwtUtil(gatewayProperties());
+        userJwtUtil = new com.zjgsu.wy.user.util.JwtUtil(userProperties());
+        token = userJwtUtil.generateToken("42", "student42", "USER");
+    }
+
+    @Benchmark
+    public String perCallKeyGenerate() {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject("42")
+                .claim("username", "student42")
+                .claim("role", "USER")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 86400000L))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Benchmark
+    public String precomputedKeyGenerate() {
+        return userJwtUtil.generateToken("42", "student42", "USER");
+    }
+
+    @Benchmark
+    public Claims perCallKeyParse() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims reusedParserParse() {
+        return gatewayJwtUtil.parseToken(token);
+    }
+
+    /**
+     * 改造前网关过滤器的每请求开销：validate + 三个 getter，共四次完整验签
+     */
+    @Benchmark
+    public Object perRequestFourParses() {
+        boolean valid = gatewayJwtUtil.validateToken(token);
+        String userId = gatewayJwtUtil.getUserIdFromToken(token);
+        String username = gatewayJwtUtil.getUsernameFromToken(token);
+        String role = gatewayJwtUtil.getRoleFromToken(token);
+        return valid ? userId + username + role : null;
+    }
+
+    @Benchmark
+    public Object perRequestSingleParse() {
+        return gatewayJwtUtil.parsePrincipal(token);
+    }
+
+    static JwtProperties gatewayProperties() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiration(86400000L);
+        return properties;
+    }
+
+    static com.zjgsu.wy.user.util.JwtProperties userProperties() {
+        com.zjgsu.wy.user.util.JwtProperties properties = new com.zjgsu.wy.user.util.JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiration(86400000L);
+        return properties;
+    }
+}
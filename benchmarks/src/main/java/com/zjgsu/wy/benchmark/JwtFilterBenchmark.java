@@ -0,0 +1,94 @@
+package com.zjgsu.wy.benchmark;
+
+import com.zjgsu.wy.gateway.filter.JwtAuthenticationFilter;
+import com.zjgsu.wy.gateway.security.VerifiedTokenCache;
+import com.zjgsu.wy.gateway.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关 JWT 认证过滤器的每请求开销
+ *
+ * 每次调用构造一个新的请求交换对象并走完 JwtAuthenticationFilter，下游链路直接完成。
+ * exchangeOnly 只构造交换对象、不经过过滤器，作为基线扣除；已认证请求命中 VerifiedTokenCache，
+ * 未命中时的验签开销见 JwtBenchmark。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+    private JwtAuthenticationFilter filter;
+
+    private String bearer;
+
+    @Setup
+    public void setUp() {
+        VerifiedTokenCache tokenCache = new VerifiedTokenCache(new JwtUtil(JwtBenchmark.gatewayProperties()),
+                new SimpleMeterRegistry(), 100_000);
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "verifiedTokenCache", tokenCache);
+
+        String token = new com.zjgsu.wy.user.util.JwtUtil(JwtBenchmark.userProperties())
+                .generateToken("42", "student42", "USER");
+        bearer = "Bearer " + token;
+        // 预热缓存，测量稳态（同一 Token 的后续请求）
+        filter.filter(authenticated(), CHAIN).block();
+    }
+
+    @Benchmark
+    public Object exchangeOnly() {
+        ServerWebExchange exchange = authenticated();
+        CHAIN.filter(exchange).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() {
+        ServerWebExchange exchange = authenticated();
+        filter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public Object whiteListRequest() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login"));
+        filter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public Object missingTokenRequest() {
+        ServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/courses"));
+        filter.filter(exchange, CHAIN).block();
+        return exchange;
+    }
+
+    private ServerWebExchange authenticated() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/courses")
+                .header(HttpHeaders.AUTHORIZATION, bearer));
+    }
+}
@@ -0,0 +1,111 @@
+package com.zjgsu.wy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求线程模型基准：平台线程池 vs 虚拟线程
+ *
+ * 模拟一次突发的 requests 个请求，每个请求做少量计算后阻塞 latencyMillis（代表一次 JDBC
+ * 或 Feign 往返），测量整批请求全部完成的耗时。
+ * <ul>
+ *   <li>platform：200 个平台线程的固定线程池，与 Tomcat 默认的 server.tomcat.threads.max 一致</li>
+ *   <li>virtual：每个请求一个虚拟线程，即 -Pjava21 构建的服务处理请求的方式</li>
+ *   <li>virtualPinned：同上，但在 synchronized 块内阻塞，复现钉住载体线程的写法，
+ *       并发度退化为载体线程数</li>
+ * </ul>
+ * 虚拟线程通过反射创建，本模块在 JDK 17 上可以编译；virtual* 模式需要以 JDK 21 运行：
+ *   mvn -f benchmarks/pom.xml -Pjava21 compile exec:exec -Djmh.args="ThreadMode"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModeBenchmark {
+
+    /**
+     * Tomcat 默认最大工作线程数
+     */
+    static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual", "virtualPinned"})
+    private String mode;
+
+    @Param({"200", "2000"})
+    private int requests;
+
+    @Param({"5"})
+    private int latencyMillis;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "platform".equals(mode)
+                ? Executors.newFixedThreadPool(PLATFORM_THREADS)
+                : newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public void burst(Blackhole blackhole) throws InterruptedException, ExecutionException {
+        boolean pinned = "virtualPinned".equals(mode);
+        List<Future<?>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            futures.add(executor.submit(() -> handle(blackhole, pinned)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private Void handle(Blackhole blackhole, boolean pinned) throws InterruptedException {
+        Blackhole.consumeCPU(1_000);
+        if (pinned) {
+            Object monitor = new Object();
+            synchronized (monitor) {
+                Thread.sleep(latencyMillis);
+            }
+        } else {
+            Thread.sleep(latencyMillis);
+        }
+        blackhole.consume(latencyMillis);
+        return null;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require JDK 21, running on "
+                    + System.getProperty("java.version"), e);
+        }
+    }
+}
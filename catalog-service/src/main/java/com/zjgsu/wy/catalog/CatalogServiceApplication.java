@@ -3,12 +3,14 @@ package com.zjgsu.wy.catalog;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * 课程目录服务启动类
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class CatalogServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,112 @@
+package com.zjgsu.wy.catalog.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标（keyset）分页结果
+ *
+ * 按稳定排序键（主键）升序返回，nextCursor 是本页最后一条记录排序键的 Base64URL 编码，
+ * 客户端原样回传即可取下一页；查询条件为 "id > 游标"，深翻页不会像 OFFSET 一样退化。
+ */
+public class CursorPage<T> {
+    /**
+     * 未指定 limit 时的默认页大小
+     */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /**
+     * 单页最大记录数
+     */
+    public static final int MAX_LIMIT = 200;
+
+    @JsonProperty("items")
+    private List<T> items;
+
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    @JsonProperty("hasMore")
+    private boolean hasMore;
+
+    // 默认构造函数
+    public CursorPage() {}
+
+    // 全参构造函数
+    public CursorPage(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * 由多查询一条（limit + 1）的结果构造分页，多出的一条只用于判断是否还有下一页
+     * @param fetched 按排序键升序、最多 limit + 1 条的查询结果
+     * @param limit 页大小
+     * @param sortKey 排序键提取函数
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, String> sortKey) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null, false);
+        }
+        List<T> items = fetched.subList(0, limit);
+        String next = encodeCursor(sortKey.apply(items.get(limit - 1)));
+        return new CursorPage<>(items, next, true);
+    }
+
+    /**
+     * 将请求的 limit 规范到 [1, MAX_LIMIT]，未指定时使用默认值
+     */
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    public static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @return 排序键，游标为空时返回 null（表示第一页）
+     * @throws IllegalArgumentException 游标格式非法
+     */
+    public static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+
+    // Getter和Setter方法
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
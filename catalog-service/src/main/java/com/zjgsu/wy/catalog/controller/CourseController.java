@@ -1,8 +1,16 @@
 package com.zjgsu.wy.catalog.controller;
 
 import com.zjgsu.wy.catalog.common.ApiResponse;
+import com.zjgsu.wy.catalog.common.CursorPage;
+import com.zjgsu.wy.catalog.dto.CourseChangeFeed;
+import com.zjgsu.wy.catalog.dto.CourseSearchResult;
+import com.zjgsu.wy.catalog.dto.SeatRelease;
+import com.zjgsu.wy.catalog.dto.SeatReservation;
+import com.zjgsu.wy.catalog.exception.BusinessException;
 import com.zjgsu.wy.catalog.model.Course;
+import com.zjgsu.wy.catalog.service.CourseChangeLog;
 import com.zjgsu.wy.catalog.service.CourseService;
+import com.zjgsu.wy.catalog.service.SeatReservationService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +18,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -27,6 +36,12 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
     
+    @Autowired
+    private SeatReservationService seatReservationService;
+    
+    @Autowired
+    private CourseChangeLog courseChangeLog;
+    
     @Value("${server.port}")
     private String serverPort;
 
@@ -41,39 +56,85 @@ public class CourseController {
         health.put("service", "catalog-service");
         health.put("port", serverPort);
         health.put("timestamp", System.currentTimeMillis());
-        log.info("[catalog-service:{}] Health check 请求", serverPort);
+        log.debug("[catalog-service:{}] Health check 请求", serverPort);
         return ResponseEntity.ok(health);
     }
 
     /**
-     * 查询所有课程
-     * GET /api/courses
+     * 分页查询课程
+     * GET /api/courses?cursor={nextCursor}&limit={limit}
+     * 支持 If-None-Match，课程集合未变化时返回 304 且不加载课程数据
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Course>>> getAllCourses() {
-        log.info("[catalog-service:{}] 查询所有课程", serverPort);
-        List<Course> courses = courseService.findAll();
+    public ResponseEntity<ApiResponse<CursorPage<Course>>> getAllCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        log.debug("[catalog-service:{}] 分页查询课程", serverPort);
+        if (webRequest.checkNotModified(courseService.collectionETag())) {
+            return null;
+        }
+        CursorPage<Course> courses = courseService.findPage(cursor, limit);
         return ResponseEntity.ok(ApiResponse.success(courses));
     }
 
+    /**
+     * 查询课程变更流（供下游本地缓存失效使用）
+     * GET /api/courses/changes?cursor={source:seq,...}&limit={limit}
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<CourseChangeFeed>> getCourseChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(courseChangeLog.changesFor(cursor, limit)));
+    }
+
+    /**
+     * 搜索课程（前缀与容错匹配），附带教师和上课日的分面计数
+     * GET /api/courses/search?q={keyword}&instructor={name}&dayOfWeek={day}&limit={limit}
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<CourseSearchResult>> searchCourses(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String instructor,
+            @RequestParam(required = false) String dayOfWeek,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("[catalog-service:{}] 搜索课程: q={}, instructor={}, dayOfWeek={}", serverPort, q, instructor, dayOfWeek);
+        return ResponseEntity.ok(ApiResponse.success(courseService.search(q, instructor, dayOfWeek, limit)));
+    }
+
     /**
      * 根据ID查询课程
      * GET /api/courses/{id}
+     * 支持 If-None-Match，课程版本未变化时返回 304
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Course>> getCourseById(@PathVariable String id) {
-        log.info("[catalog-service:{}] 查询课程 ID: {}", serverPort, id);
+    public ResponseEntity<ApiResponse<Course>> getCourseById(@PathVariable String id, WebRequest webRequest) {
+        log.debug("[catalog-service:{}] 查询课程 ID: {}", serverPort, id);
         Course course = courseService.findById(id);
+        if (webRequest.checkNotModified(courseService.courseETag(course))) {
+            return null;
+        }
         return ResponseEntity.ok(ApiResponse.success(course));
     }
 
+    /**
+     * 根据ID批量查询课程
+     * POST /api/courses/batch
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<Map<String, Course>>> getCoursesByIds(@RequestBody List<String> ids) {
+        Map<String, Course> courses = courseService.findByIds(ids);
+        return ResponseEntity.ok(ApiResponse.success(courses));
+    }
+
     /**
      * 根据课程代码查询课程
      * GET /api/courses/code/{code}
      */
     @GetMapping("/code/{code}")
     public ResponseEntity<ApiResponse<Course>> getCourseByCode(@PathVariable String code) {
-        log.info("[catalog-service:{}] 查询课程代码: {}", serverPort, code);
+        log.debug("[catalog-service:{}] 查询课程代码: {}", serverPort, code);
         Course course = courseService.findByCode(code);
         return ResponseEntity.ok(ApiResponse.success(course));
     }
@@ -84,7 +145,7 @@ public class CourseController {
      */
     @PostMapping
     public ResponseEntity<ApiResponse<Course>> createCourse(@Valid @RequestBody Course course) {
-        log.info("[catalog-service:{}] 创建课程: {}", serverPort, course.getName());
+        log.info("[catalog-service:{}] 创建课程: {}", serverPort, course.getTitle());
         Course createdCourse = courseService.create(course);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("课程创建成功", createdCourse));
@@ -134,4 +195,65 @@ public class CourseController {
         courseService.deleteById(id);
         return ResponseEntity.ok(ApiResponse.success("课程删除成功", null));
     }
+
+    /**
+     * 预占课程席位（条件原子自增 enrolled，不会超卖）
+     * POST /api/courses/{id}/reserve
+     */
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<ApiResponse<SeatReservation>> reserveSeat(@PathVariable String id) {
+        SeatReservation reservation = seatReservationService.reserve(id);
+        String message = reservation.isSuccess() ? "席位预占成功" : "课程已满";
+        return ResponseEntity.ok(ApiResponse.success(message, reservation));
+    }
+
+    /**
+     * 释放课程席位
+     * POST /api/courses/{id}/release
+     */
+    @PostMapping("/{id}/release")
+    public ResponseEntity<ApiResponse<SeatReservation>> releaseSeat(@PathVariable String id) {
+        SeatReservation reservation = seatReservationService.release(id);
+        String message = reservation.isSuccess() ? "席位释放成功" : "没有可释放的席位";
+        return ResponseEntity.ok(ApiResponse.success(message, reservation));
+    }
+
+    /**
+     * 批量预占课程席位（批量选课使用），每门课程独立判定
+     * POST /api/courses/batch/reserve
+     */
+    @PostMapping("/batch/reserve")
+    public ResponseEntity<ApiResponse<List<SeatReservation>>> reserveSeats(@RequestBody List<String> ids) {
+        checkBatchSize(ids);
+        return ResponseEntity.ok(ApiResponse.success(seatReservationService.reserveAll(ids)));
+    }
+
+    /**
+     * 批量释放课程席位
+     * POST /api/courses/batch/release
+     */
+    @PostMapping("/batch/release")
+    public ResponseEntity<ApiResponse<List<SeatReservation>>> releaseSeats(@RequestBody List<String> ids) {
+        checkBatchSize(ids);
+        return ResponseEntity.ok(ApiResponse.success(seatReservationService.releaseAll(ids)));
+    }
+
+    /**
+     * 按发件箱记录批量释放席位（enrollment-service 退课释放，重复投递的记录只扣减一次）
+     * POST /api/courses/batch/release-entries
+     */
+    @PostMapping("/batch/release-entries")
+    public ResponseEntity<ApiResponse<List<SeatReservation>>> releaseSeatEntries(
+            @RequestBody List<SeatRelease> releases) {
+        if (releases.size() > CourseService.MAX_BATCH_SIZE) {
+            throw new BusinessException("单次批量操作记录数量不能超过 " + CourseService.MAX_BATCH_SIZE);
+        }
+        return ResponseEntity.ok(ApiResponse.success(seatReservationService.releaseEntries(releases)));
+    }
+
+    private static void checkBatchSize(List<String> ids) {
+        if (ids.size() > CourseService.MAX_BATCH_SIZE) {
+            throw new BusinessException("单次批量操作课程数量不能超过 " + CourseService.MAX_BATCH_SIZE);
+        }
+    }
 }
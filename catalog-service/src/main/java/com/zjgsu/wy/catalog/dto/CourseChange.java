@@ -0,0 +1,74 @@
+package com.zjgsu.wy.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 课程变更记录（变更流中的一条）
+ */
+public class CourseChange {
+    @JsonProperty("seq")
+    private long seq;
+
+    @JsonProperty("courseId")
+    private String courseId;
+
+    @JsonProperty("type")
+    private CourseChangeType type;
+
+    @JsonProperty("timestamp")
+    private long timestamp;
+
+    // 默认构造函数
+    public CourseChange() {}
+
+    // 全参构造函数
+    public CourseChange(long seq, String courseId, CourseChangeType type, long timestamp) {
+        this.seq = seq;
+        this.courseId = courseId;
+        this.type = type;
+        this.timestamp = timestamp;
+    }
+
+    // Getter和Setter方法
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public CourseChangeType getType() {
+        return type;
+    }
+
+    public void setType(CourseChangeType type) {
+        this.type = type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseChange{" +
+                "seq=" + seq +
+                ", courseId='" + courseId + '\'' +
+                ", type=" + type +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
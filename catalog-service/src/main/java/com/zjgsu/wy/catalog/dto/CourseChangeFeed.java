@@ -0,0 +1,69 @@
+package com.zjgsu.wy.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 课程变更流的一页
+ *
+ * source 标识产生变更的 catalog-service 实例，seq 只在同一实例内单调递增；
+ * truncated 为 true 表示请求的起点已被环形缓冲区淘汰，调用方应整体失效本地缓存。
+ */
+public class CourseChangeFeed {
+    @JsonProperty("source")
+    private String source;
+
+    @JsonProperty("latestSeq")
+    private long latestSeq;
+
+    @JsonProperty("truncated")
+    private boolean truncated;
+
+    @JsonProperty("changes")
+    private List<CourseChange> changes;
+
+    // 默认构造函数
+    public CourseChangeFeed() {}
+
+    // 全参构造函数
+    public CourseChangeFeed(String source, long latestSeq, boolean truncated, List<CourseChange> changes) {
+        this.source = source;
+        this.latestSeq = latestSeq;
+        this.truncated = truncated;
+        this.changes = changes;
+    }
+
+    // Getter和Setter方法
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getLatestSeq() {
+        return latestSeq;
+    }
+
+    public void setLatestSeq(long latestSeq) {
+        this.latestSeq = latestSeq;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public List<CourseChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<CourseChange> changes) {
+        this.changes = changes;
+    }
+}
@@ -0,0 +1,21 @@
+package com.zjgsu.wy.catalog.dto;
+
+/**
+ * 课程变更类型枚举
+ */
+public enum CourseChangeType {
+    /**
+     * 新建课程
+     */
+    CREATED,
+    
+    /**
+     * 更新课程
+     */
+    UPDATED,
+    
+    /**
+     * 删除课程
+     */
+    DELETED
+}
@@ -0,0 +1,59 @@
+package com.zjgsu.wy.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.zjgsu.wy.catalog.model.Course;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 课程搜索结果
+ *
+ * total 为命中总数（不受 limit 截断），facets 按维度给出命中结果中各取值的课程数，
+ * 维度为 "instructor"（教师姓名）与 "dayOfWeek"（上课日），按数量降序排列。
+ */
+public class CourseSearchResult {
+    @JsonProperty("total")
+    private int total;
+
+    @JsonProperty("items")
+    private List<Course> items;
+
+    @JsonProperty("facets")
+    private Map<String, Map<String, Integer>> facets;
+
+    // 默认构造函数
+    public CourseSearchResult() {}
+
+    // 全参构造函数
+    public CourseSearchResult(int total, List<Course> items, Map<String, Map<String, Integer>> facets) {
+        this.total = total;
+        this.items = items;
+        this.facets = facets;
+    }
+
+    // Getter和Setter方法
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public List<Course> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Course> items) {
+        this.items = items;
+    }
+
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,63 @@
+package com.zjgsu.wy.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 待释放的席位（enrollment-service 的一条发件箱记录）
+ *
+ * id 为发件箱记录 ID，用于识别重复投递。
+ */
+public class SeatRelease {
+    @JsonProperty("id")
+    private String id;
+
+    @JsonProperty("courseId")
+    private String courseId;
+
+    @JsonProperty("quantity")
+    private int quantity;
+
+    // 默认构造函数
+    public SeatRelease() {}
+
+    // 全参构造函数
+    public SeatRelease(String id, String courseId, int quantity) {
+        this.id = id;
+        this.courseId = courseId;
+        this.quantity = quantity;
+    }
+
+    // Getter和Setter方法
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatRelease{" +
+                "id='" + id + '\'' +
+                ", courseId='" + courseId + '\'' +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
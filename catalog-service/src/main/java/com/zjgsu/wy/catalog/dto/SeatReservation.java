@@ -0,0 +1,61 @@
+package com.zjgsu.wy.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 席位预占/释放结果
+ */
+public class SeatReservation {
+    @JsonProperty("courseId")
+    private String courseId;
+
+    @JsonProperty("success")
+    private boolean success;
+
+    @JsonProperty("remaining")
+    private Integer remaining;
+
+    // 默认构造函数
+    public SeatReservation() {}
+
+    // 全参构造函数
+    public SeatReservation(String courseId, boolean success, Integer remaining) {
+        this.courseId = courseId;
+        this.success = success;
+        this.remaining = remaining;
+    }
+
+    // Getter和Setter方法
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public Integer getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(Integer remaining) {
+        this.remaining = remaining;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatReservation{" +
+                "courseId='" + courseId + '\'' +
+                ", success=" + success +
+                ", remaining=" + remaining +
+                '}';
+    }
+}
@@ -0,0 +1,32 @@
+package com.zjgsu.wy.catalog.event;
+
+import com.zjgsu.wy.catalog.dto.CourseChangeType;
+
+/**
+ * 课程变更领域事件，由 CourseService 在写操作中发布，事务提交后分发给监听者
+ */
+public class CourseChangedEvent {
+    private final String courseId;
+    private final CourseChangeType type;
+
+    public CourseChangedEvent(String courseId, CourseChangeType type) {
+        this.courseId = courseId;
+        this.type = type;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public CourseChangeType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseChangedEvent{" +
+                "courseId='" + courseId + '\'' +
+                ", type=" + type +
+                '}';
+    }
+}
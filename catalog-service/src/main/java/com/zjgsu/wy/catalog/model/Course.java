@@ -1,9 +1,9 @@
 package com.zjgsu.wy.catalog.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.zjgsu.wy.catalog.common.SnowflakeIdGenerator;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * 课程实体类
@@ -14,6 +14,7 @@ import java.util.UUID;
 })
 public class Course {
     @Id
+    @Column(length = 36)
     @JsonProperty("id")
     private String id;
     
@@ -55,16 +56,25 @@ public class Course {
     @Column(name = "created_at", nullable = false, updatable = false)
     @JsonProperty("createdAt")
     private LocalDateTime createdAt;
+    
+    /**
+     * 乐观锁版本号，每次修改（包括席位预占/释放）递增，用于生成 ETag
+     * 新建课程时为 null，由 Hibernate 在插入时置为 0
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @JsonProperty("version")
+    private Long version;
 
     // 默认构造函数
     public Course() {
-        this.id = UUID.randomUUID().toString();
+        this.id = SnowflakeIdGenerator.next();
         this.enrolled = 0;
     }
 
     // 全参构造函数
     public Course(String code, String title, Instructor instructor, ScheduleSlot schedule, Integer capacity) {
-        this.id = UUID.randomUUID().toString();
+        this.id = SnowflakeIdGenerator.next();
         this.code = code;
         this.title = title;
         this.instructor = instructor;
@@ -147,6 +157,14 @@ public class Course {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 
     @Override
     public String toString() {
@@ -159,6 +177,7 @@ public class Course {
                 ", capacity=" + capacity +
                 ", enrolled=" + enrolled +
                 ", createdAt=" + createdAt +
+                ", version=" + version +
                 '}';
     }
 }
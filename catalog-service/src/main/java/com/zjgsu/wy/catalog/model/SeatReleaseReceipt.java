@@ -0,0 +1,69 @@
+package com.zjgsu.wy.catalog.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 席位释放回执
+ *
+ * 以 enrollment-service 发件箱记录的 ID 为主键，与已选人数的扣减在同一事务内写入。
+ * 发件箱按至少一次投递，重复投递的记录在这里被识别并跳过，已选人数只扣减一次。
+ */
+@Entity
+@Table(name = "seat_release_receipts", indexes = {
+    @Index(name = "idx_receipt_released_at", columnList = "released_at")
+})
+public class SeatReleaseReceipt implements Persistable<String> {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "course_id", nullable = false, length = 36)
+    private String courseId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "released_at", nullable = false, updatable = false)
+    private LocalDateTime releasedAt;
+
+    // 默认构造函数
+    public SeatReleaseReceipt() {}
+
+    // 全参构造函数
+    public SeatReleaseReceipt(String id, String courseId, int quantity) {
+        this.id = id;
+        this.courseId = courseId;
+        this.quantity = quantity;
+        this.releasedAt = LocalDateTime.now();
+    }
+
+    // Getter和Setter方法
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public LocalDateTime getReleasedAt() {
+        return releasedAt;
+    }
+
+    /**
+     * 回执只插入不更新：直接 persist，不先 SELECT 判断是否存在；
+     * 并发的重复投递由主键冲突拒绝
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -1,7 +1,9 @@
 package com.zjgsu.wy.catalog.repository;
 
 import com.zjgsu.wy.catalog.model.Course;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,6 +22,16 @@ public interface CourseRepository extends JpaRepository<Course, String> {
      */
     Optional<Course> findByCode(String code);
     
+    /**
+     * 按主键升序查询第一页课程（游标分页）
+     */
+    List<Course> findAllByOrderByIdAsc(Limit limit);
+    
+    /**
+     * 按主键升序查询游标之后的一页课程（游标分页）
+     */
+    List<Course> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+    
     /**
      * 根据讲师ID查询课程列表
      */
@@ -32,11 +44,6 @@ public interface CourseRepository extends JpaRepository<Course, String> {
     @Query("SELECT c FROM Course c WHERE c.enrolled < c.capacity")
     List<Course> findCoursesWithAvailableCapacity();
     
-    /**
-     * 根据标题关键字模糊查询
-     */
-    List<Course> findByTitleContainingIgnoreCase(String keyword);
-    
     /**
      * 检查课程代码是否存在
      */
@@ -47,4 +54,42 @@ public interface CourseRepository extends JpaRepository<Course, String> {
      */
     @Query("SELECT COUNT(c) FROM Course c WHERE c.instructor.id = :instructorId")
     long countByInstructorId(@Param("instructorId") String instructorId);
+    
+    /**
+     * 查询课程剩余席位数（capacity - enrolled）
+     */
+    @Query("SELECT c.capacity - c.enrolled FROM Course c WHERE c.id = :id")
+    Optional<Integer> findRemainingSeats(@Param("id") String id);
+    
+    /**
+     * 条件原子自增已选人数，仅在 enrolled < capacity 时生效（同时递增版本号，使 ETag 失效）
+     * @return 受影响行数，1 表示预占成功，0 表示已满或课程不存在
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.enrolled = c.enrolled + 1, c.version = c.version + 1 WHERE c.id = :id AND c.enrolled < c.capacity")
+    int incrementEnrolledIfAvailable(@Param("id") String id);
+    
+    /**
+     * 条件原子自减已选人数，仅在 enrolled > 0 时生效（同时递增版本号，使 ETag 失效）
+     * @return 受影响行数，1 表示释放成功
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.enrolled = c.enrolled - 1, c.version = c.version + 1 WHERE c.id = :id AND c.enrolled > 0")
+    int decrementEnrolledIfPositive(@Param("id") String id);
+    
+    /**
+     * 原子减少已选人数 count 个，最多减到 0（同时递增版本号，使 ETag 失效）
+     * @return 受影响行数，1 表示释放成功，0 表示没有可释放的席位或课程不存在
+     */
+    @Modifying
+    @Query("UPDATE Course c SET c.enrolled = CASE WHEN c.enrolled > :count THEN c.enrolled - :count ELSE 0 END, " +
+           "c.version = c.version + 1 WHERE c.id = :id AND c.enrolled > 0")
+    int decrementEnrolledBy(@Param("id") String id, @Param("count") int count);
+    
+    /**
+     * 课程集合的版本摘要：课程数、版本号之和、最新创建时间
+     * 任意课程的新增、修改、删除都会改变其中至少一项，用于生成列表 ETag
+     */
+    @Query("SELECT COUNT(c), COALESCE(SUM(c.version), 0), MAX(c.createdAt) FROM Course c")
+    Object[] findCollectionVersion();
 }
@@ -0,0 +1,33 @@
+package com.zjgsu.wy.catalog.repository;
+
+import com.zjgsu.wy.catalog.model.SeatReleaseReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 席位释放回执数据访问层
+ */
+@Repository
+public interface SeatReleaseReceiptRepository extends JpaRepository<SeatReleaseReceipt, String> {
+
+    /**
+     * 查询已经处理过的发件箱记录 ID
+     */
+    @Query("SELECT r.id FROM SeatReleaseReceipt r WHERE r.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    /**
+     * 删除早于指定时间的回执
+     * @return 删除的条数
+     */
+    @Modifying
+    @Query("DELETE FROM SeatReleaseReceipt r WHERE r.releasedAt < :before")
+    int deleteReleasedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,112 @@
+package com.zjgsu.wy.catalog.service;
+
+import com.zjgsu.wy.catalog.dto.CourseChange;
+import com.zjgsu.wy.catalog.dto.CourseChangeFeed;
+import com.zjgsu.wy.catalog.event.CourseChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 课程变更日志
+ *
+ * 以有界环形缓冲区保存本实例最近的课程变更，供 enrollment-service 的本地课程缓存
+ * 轮询失效。只在事务提交后记录，保证消费方回源时读到的是已提交的数据。
+ */
+@Component
+@Slf4j
+public class CourseChangeLog {
+
+    /**
+     * 单次拉取返回的最大变更条数
+     */
+    public static final int MAX_FETCH_SIZE = 500;
+
+    /**
+     * 本实例的变更流标识，每次启动重新生成
+     */
+    private final String source = UUID.randomUUID().toString();
+
+    private final int capacity;
+
+    private final Deque<CourseChange> buffer;
+
+    private long latestSeq;
+
+    public CourseChangeLog(@Value("${catalog.change-feed.capacity:1024}") int capacity) {
+        this.capacity = capacity;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * 事务提交后记录课程变更
+     */
+    @TransactionalEventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        record(event);
+    }
+
+    /**
+     * 按调用方持有的游标查询变更
+     *
+     * 调用方通过负载均衡访问任意实例，因此游标携带它见过的每个实例的位置，
+     * 格式为 "source:seq,source:seq"；找不到本实例的位置时从头开始。
+     * @param cursor 调用方游标，可为空
+     * @param limit 最多返回条数
+     */
+    public CourseChangeFeed changesFor(String cursor, int limit) {
+        long since = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            for (String part : cursor.split(",")) {
+                int separator = part.lastIndexOf(':');
+                if (separator > 0 && source.equals(part.substring(0, separator).trim())) {
+                    try {
+                        since = Long.parseLong(part.substring(separator + 1).trim());
+                    } catch (NumberFormatException e) {
+                        since = 0L;
+                    }
+                    break;
+                }
+            }
+        }
+        return since(since, limit);
+    }
+
+    /**
+     * 查询指定序号之后的变更
+     * @param since 调用方已处理的最大序号
+     * @param limit 最多返回条数
+     */
+    public synchronized CourseChangeFeed since(long since, int limit) {
+        int max = Math.min(Math.max(limit, 1), MAX_FETCH_SIZE);
+        boolean truncated = buffer.isEmpty()
+                ? since < latestSeq
+                : since + 1 < buffer.peekFirst().getSeq();
+        List<CourseChange> changes = new ArrayList<>();
+        for (CourseChange change : buffer) {
+            if (change.getSeq() > since) {
+                changes.add(change);
+                if (changes.size() >= max) {
+                    break;
+                }
+            }
+        }
+        return new CourseChangeFeed(source, latestSeq, truncated, changes);
+    }
+
+    private synchronized void record(CourseChangedEvent event) {
+        if (buffer.size() >= capacity) {
+            buffer.pollFirst();
+        }
+        buffer.addLast(new CourseChange(++latestSeq, event.getCourseId(), event.getType(),
+                System.currentTimeMillis()));
+        log.debug("Recorded course change: {} (seq={})", event, latestSeq);
+    }
+}
@@ -0,0 +1,438 @@
+package com.zjgsu.wy.catalog.service;
+
+import com.zjgsu.wy.catalog.dto.CourseChangeType;
+import com.zjgsu.wy.catalog.dto.CourseSearchResult;
+import com.zjgsu.wy.catalog.event.CourseChangedEvent;
+import com.zjgsu.wy.catalog.model.Course;
+import com.zjgsu.wy.catalog.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 课程搜索倒排索引（进程内）
+ *
+ * 索引字段为课程标题、课程代码、教师姓名和上课日。英文与数字按单词切分
+ * （"CS101" 同时产生 "cs101"、"cs"、"101"），中文按单字和相邻双字切分。
+ * 查询词之间为 AND 关系，每个查询词依次尝试精确匹配、前缀匹配，都未命中时
+ * 再按编辑距离做容错匹配（长度 4 以上允许 1 处错误，8 以上允许 2 处）。
+ *
+ * 启动时从数据库全量构建，本实例的课程写操作在事务提交后增量更新；其他实例的写操作
+ * 以及席位预占/释放（不发布课程变更事件）通过定时全量重建收敛，因此搜索结果中的
+ * enrolled 可能滞后，需要实时余量时应查询课程详情。
+ */
+@Component
+@Slf4j
+public class CourseSearchIndex {
+
+    /**
+     * 未指定 limit 时返回的结果数
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * 单次搜索最多返回的结果数
+     */
+    public static final int MAX_LIMIT = 100;
+
+    public static final String FACET_INSTRUCTOR = "instructor";
+
+    public static final String FACET_DAY_OF_WEEK = "dayOfWeek";
+
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_FUZZY = 1;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 串行化全量重建；重建期间要查询数据库，使用 ReentrantLock 而不是 synchronized，
+     * 虚拟线程在锁内阻塞时不会钉住载体线程
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Map<String, Course> courses = new HashMap<>();
+
+    private final Map<String, Set<String>> tokensByCourse = new HashMap<>();
+
+    private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+
+    /**
+     * 全量重建期间发生变更的课程，重建完成后需要重新加载，避免被旧快照覆盖
+     */
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean rebuilding;
+
+    /**
+     * 应用启动完成后构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 定时全量重建，收敛其他实例的写操作和席位变化
+     */
+    @Scheduled(initialDelayString = "${catalog.search.rebuild-interval:300000}",
+            fixedDelayString = "${catalog.search.rebuild-interval:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * 事务提交后增量更新单门课程
+     */
+    @TransactionalEventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.getCourseId());
+        }
+        if (event.getType() == CourseChangeType.DELETED) {
+            remove(event.getCourseId());
+        } else {
+            reload(event.getCourseId());
+        }
+    }
+
+    /**
+     * 从数据库全量重建索引
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            long start = System.nanoTime();
+            // 在锁外加载，重建期间搜索继续使用旧索引
+            List<Course> all = courseRepository.findAll();
+            lock.writeLock().lock();
+            try {
+                courses.clear();
+                tokensByCourse.clear();
+                postings.clear();
+                for (Course course : all) {
+                    addLocked(course);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            for (String courseId : changedDuringRebuild) {
+                reload(courseId);
+            }
+            log.info("Course search index rebuilt: {} courses, {} terms in {} ms",
+                    all.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Failed to rebuild course search index, keep serving the previous one", e);
+        } finally {
+            rebuilding = false;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 搜索课程
+     * @param query 关键字，为空时匹配全部课程（仅按筛选条件过滤，用于分面浏览）
+     * @param instructor 教师姓名筛选（忽略大小写），可为空
+     * @param dayOfWeek 上课日筛选（忽略大小写），可为空
+     * @param limit 返回条数，超过 MAX_LIMIT 时截断
+     */
+    public CourseSearchResult search(String query, String instructor, String dayOfWeek, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = terms.isEmpty() ? matchAll() : matchTerms(terms);
+
+            List<Course> hits = new ArrayList<>();
+            Map<String, Integer> instructorFacet = new HashMap<>();
+            Map<String, Integer> dayFacet = new HashMap<>();
+            for (String courseId : scores.keySet()) {
+                Course course = courses.get(courseId);
+                String instructorName = instructorName(course);
+                String day = dayOfWeek(course);
+                if (!matchesFilter(instructor, instructorName) || !matchesFilter(dayOfWeek, day)) {
+                    continue;
+                }
+                hits.add(course);
+                if (instructorName != null) {
+                    instructorFacet.merge(instructorName, 1, Integer::sum);
+                }
+                if (day != null) {
+                    dayFacet.merge(day, 1, Integer::sum);
+                }
+            }
+
+            hits.sort(Comparator.<Course>comparingInt(c -> scores.get(c.getId())).reversed()
+                    .thenComparing(Course::getCode, Comparator.nullsLast(Comparator.naturalOrder())));
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(FACET_INSTRUCTOR, sortByCount(instructorFacet));
+            facets.put(FACET_DAY_OF_WEEK, sortByCount(dayFacet));
+            return new CourseSearchResult(hits.size(), new ArrayList<>(hits.subList(0, Math.min(size, hits.size()))), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reload(String courseId) {
+        Course course = courseRepository.findById(courseId).orElse(null);
+        if (course == null) {
+            remove(courseId);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+            addLocked(course);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(String courseId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Course course) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(course.getTitle()));
+        tokens.addAll(tokenize(course.getCode()));
+        tokens.addAll(tokenize(instructorName(course)));
+        tokens.addAll(tokenize(dayOfWeek(course)));
+        courses.put(course.getId(), course);
+        tokensByCourse.put(course.getId(), tokens);
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new HashSet<>()).add(course.getId());
+        }
+    }
+
+    private void removeLocked(String courseId) {
+        courses.remove(courseId);
+        Set<String> tokens = tokensByCourse.remove(courseId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Set<String> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(courseId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private Map<String, Integer> matchAll() {
+        Map<String, Integer> scores = new HashMap<>();
+        for (String courseId : courses.keySet()) {
+            scores.put(courseId, 0);
+        }
+        return scores;
+    }
+
+    /**
+     * 逐个查询词求交集，得分为各查询词最佳匹配方式的得分之和
+     */
+    private Map<String, Integer> matchTerms(Set<String> terms) {
+        Map<String, Integer> scores = null;
+        for (String term : terms) {
+            Map<String, Integer> termScores = matchTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<String, Integer> merged = new HashMap<>();
+                for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                    Integer score = termScores.get(entry.getKey());
+                    if (score != null) {
+                        merged.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private Map<String, Integer> matchTerm(String term) {
+        Map<String, Integer> scores = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int score = entry.getKey().equals(term) ? SCORE_EXACT : SCORE_PREFIX;
+            for (String courseId : entry.getValue()) {
+                scores.merge(courseId, score, Math::max);
+            }
+        }
+        if (!scores.isEmpty()) {
+            return scores;
+        }
+
+        int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (maxEdits == 0) {
+            return scores;
+        }
+        for (Map.Entry<String, Set<String>> entry : postings.entrySet()) {
+            String token = entry.getKey();
+            if (Math.abs(token.length() - term.length()) <= maxEdits
+                    && withinEditDistance(term, token, maxEdits)) {
+                for (String courseId : entry.getValue()) {
+                    scores.put(courseId, SCORE_FUZZY);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * 受限的 Damerau-Levenshtein 距离（相邻字符交换计 1 次），某一行最小值超过上限时提前结束
+     */
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * 切分文本为索引词：英文和数字按单词（字母数字混合时额外拆出字母段和数字段），
+     * 中文按单字和相邻双字
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        StringBuilder han = new StringBuilder();
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            if (Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN) {
+                flushWord(word, tokens);
+                han.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flushHan(han, tokens);
+                word.appendCodePoint(codePoint);
+            } else {
+                flushWord(word, tokens);
+                flushHan(han, tokens);
+            }
+            i += Character.charCount(codePoint);
+        }
+        flushWord(word, tokens);
+        flushHan(han, tokens);
+        return tokens;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (word.isEmpty()) {
+            return;
+        }
+        String value = word.toString();
+        tokens.add(value);
+        // 字母数字混合的单词（如课程代码）额外拆分，使 "cs" 或 "101" 也能命中
+        int start = 0;
+        for (int i = 1; i <= value.length(); i++) {
+            if (i == value.length() || Character.isDigit(value.charAt(i)) != Character.isDigit(value.charAt(i - 1))) {
+                if (start > 0 || i < value.length()) {
+                    tokens.add(value.substring(start, i));
+                }
+                start = i;
+            }
+        }
+        word.setLength(0);
+    }
+
+    private static void flushHan(StringBuilder han, List<String> tokens) {
+        if (han.isEmpty()) {
+            return;
+        }
+        int[] codePoints = han.codePoints().toArray();
+        for (int i = 0; i < codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, 1));
+            if (i + 1 < codePoints.length) {
+                tokens.add(new String(codePoints, i, 2));
+            }
+        }
+        han.setLength(0);
+    }
+
+    private static boolean matchesFilter(String filter, String value) {
+        return filter == null || filter.isBlank() || filter.trim().equalsIgnoreCase(value);
+    }
+
+    private static String instructorName(Course course) {
+        return course.getInstructor() == null ? null : course.getInstructor().getName();
+    }
+
+    private static String dayOfWeek(Course course) {
+        return course.getSchedule() == null ? null : course.getSchedule().getDayOfWeek();
+    }
+
+    private static Map<String, Integer> sortByCount(Map<String, Integer> counts) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -1,14 +1,27 @@
 package com.zjgsu.wy.catalog.service;
 
+import com.zjgsu.wy.catalog.common.CursorPage;
+import com.zjgsu.wy.catalog.dto.CourseChangeType;
+import com.zjgsu.wy.catalog.dto.CourseSearchResult;
+import com.zjgsu.wy.catalog.event.CourseChangedEvent;
 import com.zjgsu.wy.catalog.exception.BusinessException;
 import com.zjgsu.wy.catalog.exception.ResourceNotFoundException;
 import com.zjgsu.wy.catalog.model.Course;
 import com.zjgsu.wy.catalog.repository.CourseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 课程服务层
@@ -17,14 +30,36 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class CourseService {
     
+    /**
+     * 批量查询单次允许的最大 ID 数量
+     */
+    public static final int MAX_BATCH_SIZE = 200;
+    
     @Autowired
     private CourseRepository courseRepository;
+    
+    @Autowired
+    private SeatReservationService seatReservationService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
 
     /**
-     * 查询所有课程
+     * 游标分页查询课程，按课程 ID 升序
+     * @param cursor 上一页返回的 nextCursor，为空表示第一页
+     * @param limit 页大小，超过 CursorPage.MAX_LIMIT 时截断
      */
-    public List<Course> findAll() {
-        return courseRepository.findAll();
+    public CursorPage<Course> findPage(String cursor, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        String afterId = decodeCursor(cursor);
+        // 多取一条用于判断是否还有下一页
+        List<Course> fetched = afterId == null
+                ? courseRepository.findAllByOrderByIdAsc(Limit.of(size + 1))
+                : courseRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        return CursorPage.of(fetched, size, Course::getId);
     }
 
     /**
@@ -35,6 +70,32 @@ public class CourseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Course", id));
     }
 
+    /**
+     * 根据ID批量查询课程，单条 SQL（IN 查询）完成
+     * @return 课程 ID 到课程的映射，按请求顺序排列，不存在的 ID 不会出现在结果中
+     */
+    public Map<String, Course> findByIds(Collection<String> ids) {
+        Set<String> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("单次批量查询课程数量不能超过 " + MAX_BATCH_SIZE);
+        }
+        Map<String, Course> found = new LinkedHashMap<>();
+        if (uniqueIds.isEmpty()) {
+            return found;
+        }
+        Map<String, Course> byId = new LinkedHashMap<>();
+        for (Course course : courseRepository.findAllById(uniqueIds)) {
+            byId.put(course.getId(), course);
+        }
+        for (String id : uniqueIds) {
+            Course course = byId.get(id);
+            if (course != null) {
+                found.put(id, course);
+            }
+        }
+        return found;
+    }
+
     /**
      * 根据课程代码查询课程
      */
@@ -52,7 +113,9 @@ public class CourseService {
         if (courseRepository.existsByCode(course.getCode())) {
             throw new BusinessException("课程代码已存在: " + course.getCode());
         }
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getId(), CourseChangeType.CREATED));
+        return saved;
     }
 
     /**
@@ -69,16 +132,20 @@ public class CourseService {
             }
         }
         
-        // 保留原有的ID和创建时间
+        // 保留原有的ID、创建时间和版本号（请求体中的版本号不参与判定）
         course.setId(id);
         course.setCreatedAt(existingCourse.getCreatedAt());
+        course.setVersion(existingCourse.getVersion());
         
         // 如果enrolled没有传入，保留原有值
         if (course.getEnrolled() == null) {
             course.setEnrolled(existingCourse.getEnrolled());
         }
         
-        return courseRepository.save(course);
+        seatReservationService.evict(id);
+        Course saved = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(id, CourseChangeType.UPDATED));
+        return saved;
     }
 
     /**
@@ -90,7 +157,10 @@ public class CourseService {
         if (enrolled != null) {
             existingCourse.setEnrolled(enrolled);
         }
-        return courseRepository.save(existingCourse);
+        seatReservationService.evict(id);
+        Course saved = courseRepository.save(existingCourse);
+        eventPublisher.publishEvent(new CourseChangedEvent(id, CourseChangeType.UPDATED));
+        return saved;
     }
 
     /**
@@ -102,6 +172,8 @@ public class CourseService {
             throw new ResourceNotFoundException("Course", id);
         }
         courseRepository.deleteById(id);
+        seatReservationService.evict(id);
+        eventPublisher.publishEvent(new CourseChangedEvent(id, CourseChangeType.DELETED));
     }
 
     /**
@@ -112,10 +184,10 @@ public class CourseService {
     }
     
     /**
-     * 根据标题关键字查询课程
+     * 关键字搜索课程（标题、课程代码、教师姓名、上课日），走进程内倒排索引，不访问数据库
      */
-    public List<Course> searchByTitle(String keyword) {
-        return courseRepository.findByTitleContainingIgnoreCase(keyword);
+    public CourseSearchResult search(String keyword, String instructor, String dayOfWeek, Integer limit) {
+        return courseSearchIndex.search(keyword, instructor, dayOfWeek, limit);
     }
     
     /**
@@ -124,4 +196,40 @@ public class CourseService {
     public List<Course> findAvailableCourses() {
         return courseRepository.findCoursesWithAvailableCapacity();
     }
+
+    /**
+     * 单门课程的强 ETag，由课程 ID 与版本号构成
+     */
+    public String courseETag(Course course) {
+        return "\"" + course.getId() + "-" + course.getVersion() + "\"";
+    }
+    
+    /**
+     * 课程列表的强 ETag
+     *
+     * 只执行一次聚合查询（课程数、版本号之和、最新创建时间），不加载课程行；
+     * 任意课程的新增、修改、删除及席位变化都会改变该值，对所有分页统一生效
+     */
+    public String collectionETag() {
+        Object[] row = courseRepository.findCollectionVersion();
+        // 单行聚合结果在部分 Hibernate 版本中会被包装为嵌套数组
+        if (row.length == 1 && row[0] instanceof Object[] nested) {
+            row = nested;
+        }
+        long count = ((Number) row[0]).longValue();
+        long versionSum = ((Number) row[1]).longValue();
+        LocalDateTime latestCreatedAt = (LocalDateTime) row[2];
+        long latest = latestCreatedAt == null ? 0L
+                : latestCreatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return "\"courses-" + Long.toHexString(count) + "-" + Long.toHexString(versionSum)
+                + "-" + Long.toHexString(latest) + "\"";
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标: " + cursor);
+        }
+    }
 }
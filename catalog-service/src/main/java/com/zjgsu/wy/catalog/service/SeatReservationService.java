@@ -0,0 +1,291 @@
+package com.zjgsu.wy.catalog.service;
+
+import com.zjgsu.wy.catalog.dto.SeatRelease;
+import com.zjgsu.wy.catalog.dto.SeatReservation;
+import com.zjgsu.wy.catalog.exception.ResourceNotFoundException;
+import com.zjgsu.wy.catalog.model.SeatReleaseReceipt;
+import com.zjgsu.wy.catalog.repository.CourseRepository;
+import com.zjgsu.wy.catalog.repository.SeatReleaseReceiptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 课程席位预占服务
+ *
+ * 数据库中的条件原子更新（enrolled < capacity）是唯一的权威判定，保证不会超卖；
+ * 前置的按课程分段的内存计数器只用于在课程已满时快速拒绝，避免热门课程的并发请求
+ * 全部打到数据库同一行上排队。计数器可能因其他实例的操作而短暂偏离，判定已满时
+ * 会按固定间隔回源数据库重新同步。
+ */
+@Service
+@Slf4j
+public class SeatReservationService {
+
+    /**
+     * 本地计数器判定已满后，回源数据库重新同步的最小间隔
+     */
+    private static final long RESYNC_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SeatReleaseReceiptRepository receiptRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * 释放回执保留时间
+     */
+    @Value("${catalog.seat-release.receipt-retention:7d}")
+    private Duration receiptRetention;
+
+    private final ConcurrentMap<String, SeatCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 预占一个席位
+     * @param courseId 课程 ID
+     * @return 预占结果，success 为 false 表示课程已满
+     */
+    public SeatReservation reserve(String courseId) {
+        SeatCounter counter = counterFor(courseId);
+
+        if (!counter.tryAcquire()) {
+            if (!counter.resyncDue()) {
+                return new SeatReservation(courseId, false, 0);
+            }
+            resync(courseId, counter);
+            if (!counter.tryAcquire()) {
+                return new SeatReservation(courseId, false, 0);
+            }
+        }
+
+        // 单语句短事务，行锁只在这一条 UPDATE 期间持有；执行失败（锁超时、连接异常等）时
+        // 席位并未占用，归还本地计数器已扣减的席位，否则反复出错会把计数器耗尽
+        Integer updated;
+        try {
+            updated = transactionTemplate.execute(
+                    status -> courseRepository.incrementEnrolledIfAvailable(courseId));
+        } catch (RuntimeException e) {
+            counter.release();
+            throw e;
+        }
+        if (updated != null && updated == 1) {
+            return new SeatReservation(courseId, true, Math.max(counter.remaining(), 0));
+        }
+
+        // 数据库判定已满（席位被其他实例占用），以数据库为准重新同步
+        log.debug("Seat reservation rejected by database, resync counter for course: {}", courseId);
+        resync(courseId, counter);
+        return new SeatReservation(courseId, false, counter.remaining());
+    }
+
+    /**
+     * 释放一个席位
+     * @param courseId 课程 ID
+     * @return 释放结果，success 为 false 表示当前没有可释放的席位
+     */
+    public SeatReservation release(String courseId) {
+        Integer updated = transactionTemplate.execute(
+                status -> courseRepository.decrementEnrolledIfPositive(courseId));
+        if (updated == null || updated == 0) {
+            if (!courseRepository.existsById(courseId)) {
+                counters.remove(courseId);
+                throw new ResourceNotFoundException("Course", courseId);
+            }
+            return new SeatReservation(courseId, false, null);
+        }
+
+        SeatCounter counter = counters.get(courseId);
+        if (counter == null) {
+            return new SeatReservation(courseId, true, null);
+        }
+        return new SeatReservation(courseId, true, counter.release());
+    }
+
+    /**
+     * 批量预占席位，每门课程独立判定（一门已满不影响其他课程）
+     * @param courseIds 课程 ID 列表
+     * @return 与请求顺序一致的预占结果，课程不存在时 success 为 false 且 remaining 为 null
+     */
+    public List<SeatReservation> reserveAll(List<String> courseIds) {
+        List<SeatReservation> results = new ArrayList<>(courseIds.size());
+        for (String courseId : courseIds) {
+            try {
+                results.add(reserve(courseId));
+            } catch (ResourceNotFoundException e) {
+                results.add(new SeatReservation(courseId, false, null));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 批量释放席位（用于批量选课失败时的补偿）
+     * @param courseIds 课程 ID 列表
+     * @return 与请求顺序一致的释放结果，课程不存在时 success 为 false
+     */
+    public List<SeatReservation> releaseAll(List<String> courseIds) {
+        List<SeatReservation> results = new ArrayList<>(courseIds.size());
+        for (String courseId : courseIds) {
+            try {
+                results.add(release(courseId));
+            } catch (ResourceNotFoundException e) {
+                results.add(new SeatReservation(courseId, false, null));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 按发件箱记录释放席位（enrollment-service 发件箱投递的退课释放）
+     *
+     * 同一课程的记录合并为一条条件更新，已选人数不足时减到 0。每门课程一个短事务：
+     * 先跳过已有回执的记录，再写入新回执并扣减已选人数，二者同时提交或回滚，
+     * 重复投递不会重复扣减。并发的重复投递由回执主键冲突拒绝，整次请求失败后由发件箱重试。
+     * 实际释放数量可能小于请求数量，因此直接丢弃本地计数器，下次预占时回源同步。
+     * @param releases 发件箱记录
+     * @return 每门课程一个释放结果（按首次出现的顺序），课程不存在或没有可释放席位时 success 为 false，
+     *         记录均已处理过时 success 为 true
+     */
+    public List<SeatReservation> releaseEntries(List<SeatRelease> releases) {
+        Map<String, List<SeatRelease>> byCourse = new LinkedHashMap<>();
+        for (SeatRelease release : releases) {
+            if (release.getId() == null || release.getCourseId() == null || release.getQuantity() <= 0) {
+                continue;
+            }
+            byCourse.computeIfAbsent(release.getCourseId(), c -> new ArrayList<>()).add(release);
+        }
+
+        List<SeatReservation> results = new ArrayList<>(byCourse.size());
+        for (Map.Entry<String, List<SeatRelease>> entry : byCourse.entrySet()) {
+            String courseId = entry.getKey();
+            Boolean success = transactionTemplate.execute(status -> releaseOnce(courseId, entry.getValue()));
+            counters.remove(courseId);
+            results.add(new SeatReservation(courseId, Boolean.TRUE.equals(success), null));
+        }
+        return results;
+    }
+
+    private boolean releaseOnce(String courseId, List<SeatRelease> releases) {
+        Set<String> processed = new HashSet<>(receiptRepository.findExistingIds(
+                releases.stream().map(SeatRelease::getId).toList()));
+        List<SeatReleaseReceipt> receipts = new ArrayList<>(releases.size());
+        int count = 0;
+        for (SeatRelease release : releases) {
+            if (processed.add(release.getId())) {
+                receipts.add(new SeatReleaseReceipt(release.getId(), courseId, release.getQuantity()));
+                count += release.getQuantity();
+            }
+        }
+        if (receipts.isEmpty()) {
+            log.debug("Duplicate seat release delivery ignored for course: {}", courseId);
+            return true;
+        }
+        receiptRepository.saveAll(receipts);
+        return courseRepository.decrementEnrolledBy(courseId, count) == 1;
+    }
+
+    /**
+     * 定时清理过期的释放回执（保留时间需远大于发件箱的最大重试间隔）
+     */
+    @Scheduled(initialDelayString = "${catalog.seat-release.purge-interval:3600000}",
+               fixedDelayString = "${catalog.seat-release.purge-interval:3600000}")
+    public void purgeReceipts() {
+        Integer deleted = transactionTemplate.execute(
+                status -> receiptRepository.deleteReleasedBefore(LocalDateTime.now().minus(receiptRetention)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Purged {} seat release receipts", deleted);
+        }
+    }
+
+    /**
+     * 课程容量或已选人数被直接修改、课程被删除时，丢弃本地计数器
+     */
+    public void evict(String courseId) {
+        counters.remove(courseId);
+    }
+
+    private SeatCounter counterFor(String courseId) {
+        SeatCounter counter = counters.get(courseId);
+        if (counter != null) {
+            return counter;
+        }
+        // 不在 computeIfAbsent 中访问数据库，避免持有 ConcurrentHashMap 的分段锁做 I/O
+        SeatCounter loaded = new SeatCounter(loadRemaining(courseId));
+        SeatCounter existing = counters.putIfAbsent(courseId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void resync(String courseId, SeatCounter counter) {
+        counter.reset(loadRemaining(courseId));
+    }
+
+    private int loadRemaining(String courseId) {
+        Integer remaining = courseRepository.findRemainingSeats(courseId)
+                .orElseThrow(() -> {
+                    counters.remove(courseId);
+                    return new ResourceNotFoundException("Course", courseId);
+                });
+        return Math.max(remaining, 0);
+    }
+
+    /**
+     * 单门课程的本地剩余席位计数器
+     */
+    private static final class SeatCounter {
+        private final AtomicInteger remaining;
+        private volatile long syncedAt;
+
+        SeatCounter(int remaining) {
+            this.remaining = new AtomicInteger(remaining);
+            this.syncedAt = System.nanoTime();
+        }
+
+        boolean tryAcquire() {
+            int current;
+            do {
+                current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        int release() {
+            return remaining.incrementAndGet();
+        }
+
+        int remaining() {
+            return remaining.get();
+        }
+
+        boolean resyncDue() {
+            return System.nanoTime() - syncedAt >= RESYNC_INTERVAL_NANOS;
+        }
+
+        void reset(int value) {
+            remaining.set(value);
+            syncedAt = System.nanoTime();
+        }
+    }
+}
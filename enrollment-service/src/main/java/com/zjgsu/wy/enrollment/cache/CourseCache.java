@@ -0,0 +1,252 @@
+package com.zjgsu.wy.enrollment.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zjgsu.wy.enrollment.client.CatalogClient;
+import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.common.CourseKey;
+import com.zjgsu.wy.enrollment.dto.CourseDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 课程信息本地近缓存
+ *
+ * 缓存 catalog-service 返回的 CourseDto，按容量和写入时间淘汰，并由 CourseCacheInvalidator
+ * 根据课程变更流主动失效。命中率等指标以 cache.* 指标名（cache=catalog.courses）通过 actuator 暴露。
+ * 席位预占不发布课程变更，缓存中的 enrolled 可能过期，不用于判定课程是否已满，
+ * 席位是否充足只以 catalog-service 的原子预占结果为准。
+ * 不存在的课程短时间负缓存，重复请求同一个无效课程 ID 时不再每次回源。
+ */
+@Component
+@Slf4j
+public class CourseCache {
+    
+    /**
+     * 批量回源时单次请求的最大课程数，与 catalog-service 的批量查询上限一致
+     */
+    private static final int LOAD_BATCH_SIZE = 200;
+    
+    private final CatalogClient catalogClient;
+    
+    private final Cache<String, CourseDto> cache;
+    
+    /**
+     * 回源确认不存在的课程 ID
+     */
+    private final Cache<String, Boolean> missing;
+    
+    /**
+     * 正在回源的课程，同一课程的并发未命中只回源一次，其余调用等待同一结果；
+     * 失效时移除登记，回源结果据此判断加载期间是否被失效
+     */
+    private final ConcurrentMap<String, CompletableFuture<CourseDto>> inFlight = new ConcurrentHashMap<>();
+    
+    public CourseCache(CatalogClient catalogClient,
+                       MeterRegistry meterRegistry,
+                       @Value("${catalog.cache.maximum-size:10000}") long maximumSize,
+                       @Value("${catalog.cache.ttl:5m}") Duration ttl,
+                       @Value("${catalog.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.catalogClient = catalogClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog.courses");
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "catalog.courses.missing");
+    }
+    
+    /**
+     * 获取课程信息，未命中时回源 catalog-service
+     *
+     * 不使用 cache.get(key, loader)：其回源在 ConcurrentHashMap 的桶锁内执行，远程调用期间
+     * 会阻塞同一桶的其他键，虚拟线程下还会钉住载体线程。这里在锁外回源，并发未命中合并为一次调用，
+     * 回源期间到达的失效不会被随后写入的旧数据覆盖（见 store）。
+     * @param courseKey 课程 ID
+     * @return 课程信息，课程不存在时返回 null
+     */
+    public CourseDto getCourse(CourseKey courseKey) {
+        String courseId = courseKey.value();
+        CourseDto cached = cache.getIfPresent(courseId);
+        if (cached != null) {
+            return cached;
+        }
+        if (missing.getIfPresent(courseId) != null) {
+            return null;
+        }
+        CompletableFuture<CourseDto> loading = new CompletableFuture<>();
+        CompletableFuture<CourseDto> existing = inFlight.putIfAbsent(courseId, loading);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            CourseDto course = loadCourse(courseKey);
+            store(courseId, loading, course);
+            loading.complete(course);
+            return course;
+        } catch (RuntimeException e) {
+            inFlight.remove(courseId, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    /**
+     * 批量获取课程信息，所有未命中的课程合并为一次批量回源
+     * @param courseIds 课程 ID 集合
+     * @return 课程 ID 到课程信息的映射，不存在或格式不合法的课程不会出现在结果中
+     */
+    public Map<String, CourseDto> getCourses(Collection<String> courseIds) {
+        Map<String, CourseDto> result = new HashMap<>();
+        Map<String, CompletableFuture<CourseDto>> loading = new LinkedHashMap<>();
+        Map<String, CompletableFuture<CourseDto>> waiting = new HashMap<>();
+        for (String courseId : courseIds) {
+            if (!CourseKey.isValid(courseId) || result.containsKey(courseId)
+                    || loading.containsKey(courseId) || waiting.containsKey(courseId)) {
+                continue;
+            }
+            CourseDto cached = cache.getIfPresent(courseId);
+            if (cached != null) {
+                result.put(courseId, cached);
+                continue;
+            }
+            if (missing.getIfPresent(courseId) != null) {
+                continue;
+            }
+            CompletableFuture<CourseDto> future = new CompletableFuture<>();
+            CompletableFuture<CourseDto> existing = inFlight.putIfAbsent(courseId, future);
+            if (existing != null) {
+                waiting.put(courseId, existing);
+            } else {
+                loading.put(courseId, future);
+            }
+        }
+        // 先完成自己登记的回源再等待其他调用的回源，避免互相等待
+        if (!loading.isEmpty()) {
+            Map<String, CourseDto> loaded;
+            try {
+                loaded = loadCourses(loading.keySet());
+            } catch (RuntimeException e) {
+                loading.forEach((courseId, future) -> {
+                    inFlight.remove(courseId, future);
+                    future.completeExceptionally(e);
+                });
+                throw e;
+            }
+            loading.forEach((courseId, future) -> {
+                CourseDto course = loaded.get(courseId);
+                store(courseId, future, course);
+                future.complete(course);
+                if (course != null) {
+                    result.put(courseId, course);
+                }
+            });
+        }
+        waiting.forEach((courseId, future) -> {
+            CourseDto course = join(future);
+            if (course != null) {
+                result.put(courseId, course);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 失效单门课程
+     */
+    public void invalidate(String courseId) {
+        inFlight.remove(courseId);
+        cache.invalidate(courseId);
+        missing.invalidate(courseId);
+    }
+    
+    /**
+     * 失效全部课程
+     */
+    public void invalidateAll() {
+        inFlight.clear();
+        cache.invalidateAll();
+        missing.invalidateAll();
+    }
+    
+    /**
+     * 写入回源结果（不存在的课程写入负缓存）并注销回源登记
+     *
+     * 登记已不是本次回源时，说明加载期间课程被失效，撤销刚写入的结果。先写入再检查，
+     * 失效无论发生在写入之前还是之后，旧数据都不会留在缓存中。
+     */
+    private void store(String courseId, CompletableFuture<CourseDto> loading, CourseDto course) {
+        if (course != null) {
+            cache.put(courseId, course);
+        } else {
+            missing.put(courseId, Boolean.TRUE);
+        }
+        if (!inFlight.remove(courseId, loading)) {
+            log.debug("Course invalidated while loading, discarding loaded value: {}", courseId);
+            cache.invalidate(courseId);
+            missing.invalidate(courseId);
+        }
+    }
+    
+    private CourseDto loadCourse(CourseKey courseKey) {
+        log.debug("Course cache miss, loading from catalog-service: {}", courseKey);
+        ApiResponse<CourseDto> response = catalogClient.getCourse(courseKey);
+        return response != null ? response.getData() : null;
+    }
+    
+    private static CourseDto join(CompletableFuture<CourseDto> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private Map<String, CourseDto> loadCourses(Collection<String> courseIds) {
+        log.debug("Course cache miss for {} courses, loading from catalog-service", courseIds.size());
+        Map<String, CourseDto> loaded = new HashMap<>();
+        List<String> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+        for (String courseId : courseIds) {
+            batch.add(courseId);
+            if (batch.size() == LOAD_BATCH_SIZE) {
+                loadBatch(batch, loaded);
+                batch = new ArrayList<>(LOAD_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            loadBatch(batch, loaded);
+        }
+        return loaded;
+    }
+    
+    private void loadBatch(List<String> batch, Map<String, CourseDto> loaded) {
+        ApiResponse<Map<String, CourseDto>> response = catalogClient.getCourses(batch);
+        if (response != null && response.getData() != null) {
+            loaded.putAll(response.getData());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.zjgsu.wy.enrollment.cache;
+
+import com.zjgsu.wy.enrollment.client.CourseChangeFeed;
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto;
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto.CourseChangeDto;
+import com.zjgsu.wy.enrollment.schedule.StudentScheduleIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 课程缓存失效器
+ *
+ * 定时轮询课程变更流并失效 CourseCache 中对应的条目，以及选了该课程的学生课表索引。每个 catalog-service 实例各自维护
+ * 序号，轮询时把所有已知实例的位置一并带上，由响应的实例取用自己的那一个；
+ * 对端已淘汰请求的起点时整体失效缓存。
+ */
+@Component
+@Slf4j
+public class CourseCacheInvalidator {
+    
+    /**
+     * 超过该时间未再出现的来源（已下线的实例）会从游标中移除
+     */
+    private static final long SOURCE_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    
+    @Autowired
+    private CourseChangeFeed courseChangeFeed;
+    
+    @Autowired
+    private CourseCache courseCache;
+    
+    @Autowired
+    private StudentScheduleIndex studentScheduleIndex;
+    
+    private final Map<String, SourcePosition> positions = new ConcurrentHashMap<>();
+    
+    @Scheduled(fixedDelayString = "${catalog.cache.feed.poll-interval:2000}")
+    public void poll() {
+        CourseChangeFeedDto feed;
+        try {
+            feed = courseChangeFeed.fetchChanges(cursor());
+        } catch (Exception e) {
+            log.debug("Failed to poll course change feed: {}", e.getMessage());
+            return;
+        }
+        if (feed == null || feed.getSource() == null) {
+            return;
+        }
+        
+        if (feed.isTruncated()) {
+            log.info("Course change feed truncated for source {}, invalidating whole course cache", feed.getSource());
+            courseCache.invalidateAll();
+            studentScheduleIndex.invalidateAll();
+        }
+        long next = feed.getLatestSeq();
+        List<CourseChangeDto> changes = feed.getChanges();
+        if (changes != null && !changes.isEmpty()) {
+            for (CourseChangeDto change : changes) {
+                courseCache.invalidate(change.getCourseId());
+                studentScheduleIndex.invalidateCourse(change.getCourseId());
+            }
+            next = changes.get(changes.size() - 1).getSeq();
+            log.debug("Invalidated {} cached courses from source {}", changes.size(), feed.getSource());
+        }
+        positions.put(feed.getSource(), new SourcePosition(next, System.currentTimeMillis()));
+    }
+    
+    private String cursor() {
+        long now = System.currentTimeMillis();
+        positions.values().removeIf(position -> now - position.seenAt() > SOURCE_RETENTION_MILLIS);
+        if (positions.isEmpty()) {
+            return null;
+        }
+        StringJoiner cursor = new StringJoiner(",");
+        positions.forEach((source, position) -> cursor.add(source + ":" + position.seq()));
+        return cursor.toString();
+    }
+    
+    private record SourcePosition(long seq, long seenAt) {
+    }
+}
@@ -1,10 +1,20 @@
 package com.zjgsu.wy.enrollment.client;
 
 import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.common.CourseKey;
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto;
 import com.zjgsu.wy.enrollment.dto.CourseDto;
+import com.zjgsu.wy.enrollment.dto.SeatReleaseDto;
+import com.zjgsu.wy.enrollment.dto.SeatReservationDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * Catalog Service Feign 客户端
@@ -19,8 +29,48 @@ public interface CatalogClient {
     /**
      * 根据课程 ID 获取课程信息
      * @param id 课程 ID
-     * @return 课程信息响应
+     * @return 课程信息响应，课程不存在（404）时返回 null（catalog-service 客户端开启了 dismiss404）
      */
     @GetMapping("/api/courses/{id}")
-    ApiResponse<CourseDto> getCourse(@PathVariable Long id);
+    ApiResponse<CourseDto> getCourse(@PathVariable CourseKey id);
+    
+    /**
+     * 根据课程 ID 批量获取课程信息，一次往返替代 N 次 getCourse
+     * @param ids 课程 ID 列表（单次最多 200 个）
+     * @return 课程 ID 到课程信息的映射，不存在的 ID 不会出现在结果中
+     */
+    @PostMapping("/api/courses/batch")
+    ApiResponse<Map<String, CourseDto>> getCourses(@RequestBody List<String> ids);
+    
+    /**
+     * 拉取课程变更流，用于失效本地课程缓存
+     * @param cursor 已处理位置，格式为 "source:seq,source:seq"，首次拉取为 null
+     * @return 变更流的一页
+     */
+    @GetMapping("/api/courses/changes")
+    ApiResponse<CourseChangeFeedDto> getCourseChanges(@RequestParam(value = "cursor", required = false) String cursor);
+    
+    /**
+     * 原子预占课程席位
+     * @param id 课程 ID
+     * @return 预占结果，success 为 false 表示课程已满
+     */
+    @PostMapping("/api/courses/{id}/reserve")
+    ApiResponse<SeatReservationDto> reserveSeat(@PathVariable String id);
+    
+    /**
+     * 批量预占课程席位，每门课程独立判定
+     * @param ids 课程 ID 列表（单次最多 200 个）
+     * @return 与请求顺序一致的预占结果
+     */
+    @PostMapping("/api/courses/batch/reserve")
+    ApiResponse<List<SeatReservationDto>> reserveSeats(@RequestBody List<String> ids);
+    
+    /**
+     * 按发件箱记录批量释放席位，catalog-service 以记录 ID 去重，重复投递只扣减一次
+     * @param releases 发件箱记录（单次最多 200 条）
+     * @return 每门课程一个释放结果
+     */
+    @PostMapping("/api/courses/batch/release-entries")
+    ApiResponse<List<SeatReservationDto>> releaseSeats(@RequestBody List<SeatReleaseDto> releases);
 }
@@ -1,11 +1,18 @@
 package com.zjgsu.wy.enrollment.client;
 
 import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.common.CourseKey;
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto;
 import com.zjgsu.wy.enrollment.dto.CourseDto;
+import com.zjgsu.wy.enrollment.dto.SeatReleaseDto;
+import com.zjgsu.wy.enrollment.dto.SeatReservationDto;
 import com.zjgsu.wy.enrollment.exception.ServiceUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Catalog Service Feign 客户端降级处理
  */
@@ -14,8 +21,38 @@ import org.springframework.stereotype.Component;
 public class CatalogClientFallback implements CatalogClient {
     
     @Override
-    public ApiResponse<CourseDto> getCourse(Long id) {
+    public ApiResponse<CourseDto> getCourse(CourseKey id) {
         log.warn("CatalogClient fallback triggered for course: {}", id);
         throw new ServiceUnavailableException("课程目录服务暂时不可用，请稍后再试");
     }
+    
+    @Override
+    public ApiResponse<Map<String, CourseDto>> getCourses(List<String> ids) {
+        log.warn("CatalogClient fallback triggered for batch of {} courses", ids.size());
+        throw new ServiceUnavailableException("课程目录服务暂时不可用，请稍后再试");
+    }
+    
+    @Override
+    public ApiResponse<CourseChangeFeedDto> getCourseChanges(String cursor) {
+        log.debug("CatalogClient fallback triggered for course change feed");
+        throw new ServiceUnavailableException("课程目录服务暂时不可用，请稍后再试");
+    }
+    
+    @Override
+    public ApiResponse<SeatReservationDto> reserveSeat(String id) {
+        log.warn("CatalogClient fallback triggered for seat reservation: {}", id);
+        throw new ServiceUnavailableException("课程目录服务暂时不可用，请稍后再试");
+    }
+    
+    @Override
+    public ApiResponse<List<SeatReservationDto>> reserveSeats(List<String> ids) {
+        log.warn("CatalogClient fallback triggered for batch seat reservation of {} courses", ids.size());
+        throw new ServiceUnavailableException("课程目录服务暂时不可用，请稍后再试");
+    }
+    
+    @Override
+    public ApiResponse<List<SeatReservationDto>> releaseSeats(List<SeatReleaseDto> releases) {
+        log.warn("CatalogClient fallback triggered for batch seat release of {} entries", releases.size());
+        throw new ServiceUnavailableException("课程目录服务暂时不可用，请稍后再试");
+    }
 }
@@ -0,0 +1,17 @@
+package com.zjgsu.wy.enrollment.client;
+
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto;
+
+/**
+ * 课程变更流传输抽象
+ * 默认实现通过 Feign 轮询 catalog-service，本地模式使用进程内实现，便于离线测试
+ */
+public interface CourseChangeFeed {
+    
+    /**
+     * 拉取游标之后的课程变更
+     * @param cursor 已处理位置，格式为 "source:seq,source:seq"，首次拉取为 null
+     * @return 变更流的一页
+     */
+    CourseChangeFeedDto fetchChanges(String cursor);
+}
@@ -0,0 +1,47 @@
+package com.zjgsu.wy.enrollment.client;
+
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto;
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto.CourseChangeDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 进程内课程变更流，catalog.cache.feed.mode=local 时替代远程轮询
+ * 通过 publish 手动注入变更，用于离线开发和测试
+ */
+@Component
+@ConditionalOnProperty(prefix = "catalog.cache.feed", name = "mode", havingValue = "local")
+public class InProcessCourseChangeFeed implements CourseChangeFeed {
+    
+    private final String source = "local-" + UUID.randomUUID();
+    
+    private final List<CourseChangeDto> changes = new ArrayList<>();
+    
+    /**
+     * 发布一条课程变更
+     * @param courseId 课程 ID
+     * @param type 变更类型（CREATED / UPDATED / DELETED）
+     */
+    public synchronized void publish(String courseId, String type) {
+        changes.add(new CourseChangeDto(changes.size() + 1, courseId, type, System.currentTimeMillis()));
+    }
+    
+    @Override
+    public synchronized CourseChangeFeedDto fetchChanges(String cursor) {
+        long since = 0L;
+        if (cursor != null) {
+            for (String part : cursor.split(",")) {
+                if (part.startsWith(source + ":")) {
+                    since = Long.parseLong(part.substring(source.length() + 1));
+                }
+            }
+        }
+        int from = (int) Math.max(0, Math.min(since, changes.size()));
+        return new CourseChangeFeedDto(source, changes.size(), false,
+                new ArrayList<>(changes.subList(from, changes.size())));
+    }
+}
@@ -0,0 +1,24 @@
+package com.zjgsu.wy.enrollment.client;
+
+import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.dto.CourseChangeFeedDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通过 CatalogClient 轮询 catalog-service 的课程变更流
+ */
+@Component
+@ConditionalOnProperty(prefix = "catalog.cache.feed", name = "mode", havingValue = "remote", matchIfMissing = true)
+public class RemoteCourseChangeFeed implements CourseChangeFeed {
+    
+    @Autowired
+    private CatalogClient catalogClient;
+    
+    @Override
+    public CourseChangeFeedDto fetchChanges(String cursor) {
+        ApiResponse<CourseChangeFeedDto> response = catalogClient.getCourseChanges(cursor);
+        return response != null ? response.getData() : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.zjgsu.wy.enrollment.common;
+
+/**
+ * 课程 ID（与 catalog-service 的 Course.id 一致）
+ *
+ * catalog-service 的课程 ID 是字符串：默认生成 19 位补零的雪花 ID，此前创建的课程为 UUID，
+ * 创建时也可以由调用方指定（不校验格式）。这里只按 catalog-service 实际能存储和寻址的范围校验
+ * （id 列最长 36 个字符，且能作为单个路径段），不做数值转换，原样作为 Feign 路径参数和缓存键使用；
+ * 不可能存在的 ID 在本地直接拒绝，不再发起注定失败的远程调用。
+ */
+public record CourseKey(String value) {
+
+    /**
+     * 与 catalog-service courses.id 列长度一致
+     */
+    private static final int MAX_LENGTH = 36;
+
+    public CourseKey {
+        if (!isValid(value)) {
+            throw new IllegalArgumentException("Invalid course ID: " + value);
+        }
+    }
+
+    /**
+     * 解析课程 ID
+     * @param value 请求中的课程 ID
+     * @return 课程 ID，格式不合法时返回 null
+     */
+    public static CourseKey parse(String value) {
+        return isValid(value) ? new CourseKey(value) : null;
+    }
+
+    /**
+     * 是否可能是 catalog-service 中的课程 ID
+     *
+     * 长度 1 到 36；不含空白、控制字符以及无法作为单个路径段传递的字符（/ \ ;），
+     * 也不能是 "." 或 ".."（路径规范化时会被消去）。
+     */
+    public static boolean isValid(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_LENGTH
+                || value.equals(".") || value.equals("..")) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c) || Character.isISOControl(c) || c == '/' || c == '\\' || c == ';') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 线上格式即原始字符串，Feign 展开路径参数时使用
+     */
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.zjgsu.wy.enrollment.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 时间有序的 64 位主键生成器（snowflake 布局）
+ *
+ * 41 位毫秒时间戳（自 2024-01-01 起，约 69 年）| 10 位节点号 | 12 位毫秒内序列号，
+ * 对外以 19 位定长十进制字符串表示：字符串顺序与生成顺序一致，新记录追加在主键索引末尾而不是随机插入，
+ * 长度约为 UUID 的一半，且与已有的 UUID 主键共存于同一 VARCHAR 列，接口中的 ID 仍是字符串。
+ *
+ * 节点号取 id.node-id，为 -1 时由实例地址（IP + 端口）散列得到；同一服务的多个实例应显式配置不同的节点号。
+ * 时钟回拨时沿用上一次的时间戳继续递增序列号，不会生成重复 ID。
+ */
+@Component
+@Slf4j
+public class SnowflakeIdGenerator {
+
+    /**
+     * 2024-01-01T00:00:00Z
+     */
+    private static final long EPOCH_MILLIS = 1704067200000L;
+
+    private static final int NODE_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int WIDTH = 19;
+
+    /**
+     * Spring 容器启动前（或不在容器中）创建的实体使用节点 0
+     */
+    private static volatile SnowflakeIdGenerator instance = new SnowflakeIdGenerator(0);
+
+    private final long node;
+
+    /**
+     * 高位为时间戳，低 12 位为序列号；序列号溢出时自然进位到下一毫秒
+     */
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${id.node-id:-1}") long nodeId,
+                                @Value("${spring.cloud.client.ip-address:127.0.0.1}") String ipAddress,
+                                @Value("${server.port:0}") int port) {
+        this(nodeId >= 0 ? nodeId : Math.floorMod((ipAddress + ":" + port).hashCode(), MAX_NODE + 1));
+        if (nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("id.node-id 必须在 0~" + MAX_NODE + " 之间");
+        }
+        this.state.set(instance.state.get());
+        instance = this;
+        log.info("Snowflake id generator node={} ({})", node, nodeId >= 0 ? "configured" : ipAddress + ":" + port);
+    }
+
+    private SnowflakeIdGenerator(long node) {
+        this.node = node;
+    }
+
+    /**
+     * 生成新的字符串主键
+     */
+    public static String next() {
+        return format(instance.nextId());
+    }
+
+    public long nextId() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long previous = state.get();
+            long next = now > previous >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : previous + 1;
+            if (state.compareAndSet(previous, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return timestamp << (NODE_BITS + SEQUENCE_BITS) | node << SEQUENCE_BITS | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * 左侧补零到 19 位，保证字符串顺序与数值顺序一致
+     */
+    static String format(long id) {
+        String digits = Long.toString(id);
+        return digits.length() >= WIDTH ? digits : "0".repeat(WIDTH - digits.length()) + digits;
+    }
+}
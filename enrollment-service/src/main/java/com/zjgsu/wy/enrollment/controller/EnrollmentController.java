@@ -1,17 +1,35 @@
 package com.zjgsu.wy.enrollment.controller;
 
 import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.common.CursorPage;
+import com.zjgsu.wy.enrollment.dto.BulkEnrollmentRequest;
+import com.zjgsu.wy.enrollment.dto.BulkEnrollmentResult;
+import com.zjgsu.wy.enrollment.dto.EnrollmentTicket;
+import com.zjgsu.wy.enrollment.dto.ExportFormat;
+import com.zjgsu.wy.enrollment.exception.BusinessException;
+import com.zjgsu.wy.enrollment.exception.ResourceNotFoundException;
+import com.zjgsu.wy.enrollment.idempotency.IdempotencyStore;
 import com.zjgsu.wy.enrollment.model.Enrollment;
+import com.zjgsu.wy.enrollment.pipeline.AsyncEnrollmentPipeline;
+import com.zjgsu.wy.enrollment.service.EnrollmentExportService;
 import com.zjgsu.wy.enrollment.service.EnrollmentService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -26,6 +44,15 @@ public class EnrollmentController {
     @Autowired
     private EnrollmentService enrollmentService;
     
+    @Autowired
+    private EnrollmentExportService enrollmentExportService;
+    
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Autowired
+    private AsyncEnrollmentPipeline asyncEnrollmentPipeline;
+    
     @Value("${server.port}")
     private String serverPort;
 
@@ -40,28 +67,80 @@ public class EnrollmentController {
         health.put("service", "enrollment-service");
         health.put("port", serverPort);
         health.put("timestamp", System.currentTimeMillis());
-        log.info("[enrollment-service:{}] Health check 请求", serverPort);
+        log.debug("[enrollment-service:{}] Health check 请求", serverPort);
         return ResponseEntity.ok(health);
     }
 
     /**
-     * 查询所有选课记录
-     * GET /api/enrollments
+     * 分页查询选课记录
+     * GET /api/enrollments?cursor={nextCursor}&limit={limit}
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Enrollment>>> getAllEnrollments() {
-        log.info("[enrollment-service:{}] 查询所有选课记录", serverPort);
-        List<Enrollment> enrollments = enrollmentService.findAll();
+    public ResponseEntity<ApiResponse<CursorPage<Enrollment>>> getAllEnrollments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("[enrollment-service:{}] 分页查询选课记录", serverPort);
+        CursorPage<Enrollment> enrollments = enrollmentService.findPage(cursor, limit);
         return ResponseEntity.ok(ApiResponse.success(enrollments));
     }
 
+    /**
+     * 流式导出选课记录（NDJSON 或 CSV），可按课程和选课日期区间（学期）过滤
+     * GET /api/enrollments/export?courseId={courseId}&from=2024-09-01&to=2025-01-31&format=ndjson|csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(
+            @RequestParam(required = false) String courseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = parseFormat(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BusinessException("导出起始日期不能晚于结束日期");
+        }
+        // 日期区间按天计算，to 当天的记录也包含在内
+        LocalDateTime fromTime = from != null ? from.atStartOfDay() : null;
+        LocalDateTime toTime = to != null ? to.plusDays(1).atStartOfDay() : null;
+        
+        log.info("[enrollment-service:{}] 导出选课记录 - courseId: {}, from: {}, to: {}, format: {}",
+                serverPort, courseId, from, to, exportFormat);
+        
+        enrollmentExportService.acquire();
+        StreamingResponseBody body = out -> {
+            try {
+                enrollmentExportService.export(courseId, fromTime, toTime, exportFormat, out);
+            } finally {
+                enrollmentExportService.release();
+            }
+        };
+        
+        String filename = "enrollments-" + (courseId != null ? courseId : "all") + "." + exportFormat.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    /**
+     * 流式导出某门课程的选课记录
+     * GET /api/enrollments/course/{courseId}/export?from=&to=&format=ndjson|csv
+     */
+    @GetMapping("/course/{courseId}/export")
+    public ResponseEntity<StreamingResponseBody> exportEnrollmentsByCourse(
+            @PathVariable String courseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        return exportEnrollments(courseId, from, to, format);
+    }
+
     /**
      * 根据ID查询选课记录
      * GET /api/enrollments/{id}
      */
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<Enrollment>> getEnrollmentById(@PathVariable String id) {
-        log.info("[enrollment-service:{}] 查询选课记录 ID: {}", serverPort, id);
+        log.debug("[enrollment-service:{}] 查询选课记录 ID: {}", serverPort, id);
         Enrollment enrollment = enrollmentService.findById(id);
         return ResponseEntity.ok(ApiResponse.success(enrollment));
     }
@@ -69,13 +148,16 @@ public class EnrollmentController {
     /**
      * 学生选课
      * POST /api/enrollments
+     * 可携带 Idempotency-Key 请求头，重复提交时直接返回首次请求的结果
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<Enrollment>> enroll(@RequestBody Map<String, String> request) {
+    public ResponseEntity<ApiResponse<Enrollment>> enroll(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody Map<String, String> request) {
         String courseId = request.get("courseId");
         String studentId = request.get("studentId");
         
-        log.info("[enrollment-service:{}] 选课请求 - courseId: {}, studentId: {}", 
+        log.debug("[enrollment-service:{}] 选课请求 - courseId: {}, studentId: {}", 
                 serverPort, courseId, studentId);
         
         if (courseId == null || studentId == null) {
@@ -83,12 +165,96 @@ public class EnrollmentController {
                     .body(ApiResponse.badRequest("courseId和studentId不能为空"));
         }
         
+        if (idempotencyKey == null) {
+            return doEnroll(courseId, studentId);
+        }
+        return idempotencyStore.execute(idempotencyKey, courseId + "|" + studentId,
+                () -> doEnroll(courseId, studentId));
+    }
+
+    private ResponseEntity<ApiResponse<Enrollment>> doEnroll(String courseId, String studentId) {
         Enrollment enrollment = enrollmentService.enroll(courseId, studentId);
-        log.info("[enrollment-service:{}] 选课成功 - enrollmentId: {}", serverPort, enrollment.getId());
+        log.debug("[enrollment-service:{}] 选课成功 - enrollmentId: {}", serverPort, enrollment.getId());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("选课成功", enrollment));
     }
 
+    /**
+     * 异步选课：校验参数后放入处理队列，立即返回 202 和状态查询地址（Location）
+     * POST /api/enrollments/async
+     * 队列已满时返回 503；可携带 Idempotency-Key 请求头，重复提交返回同一受理凭据
+     */
+    @PostMapping("/async")
+    public ResponseEntity<ApiResponse<EnrollmentTicket>> enrollAsync(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody Map<String, String> request) {
+        String courseId = request.get("courseId");
+        String studentId = request.get("studentId");
+        
+        if (courseId == null || studentId == null) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.badRequest("courseId和studentId不能为空"));
+        }
+        
+        if (idempotencyKey == null) {
+            return doEnrollAsync(courseId, studentId);
+        }
+        return idempotencyStore.execute(idempotencyKey, "async|" + courseId + "|" + studentId,
+                () -> doEnrollAsync(courseId, studentId));
+    }
+
+    private ResponseEntity<ApiResponse<EnrollmentTicket>> doEnrollAsync(String courseId, String studentId) {
+        EnrollmentTicket ticket = asyncEnrollmentPipeline.submit(courseId, studentId);
+        log.debug("[enrollment-service:{}] 异步选课已受理 - ticketId: {}", serverPort, ticket.getTicketId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/enrollments/async/" + ticket.getTicketId()))
+                .body(ApiResponse.success("选课请求已受理", ticket));
+    }
+
+    /**
+     * 查询异步选课状态，处理中时返回 Retry-After 提示轮询间隔
+     * GET /api/enrollments/async/{ticketId}
+     */
+    @GetMapping("/async/{ticketId}")
+    public ResponseEntity<ApiResponse<EnrollmentTicket>> getEnrollmentTicket(@PathVariable String ticketId) {
+        EnrollmentTicket ticket = asyncEnrollmentPipeline.find(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("EnrollmentTicket", ticketId));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (ticket.getStatus() == EnrollmentTicket.Status.PENDING) {
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(ApiResponse.success(ticket));
+    }
+
+    /**
+     * 批量选课（一次提交多门课程，每门课程单独给出结果）
+     * POST /api/enrollments/bulk
+     * 可携带 Idempotency-Key 请求头，重复提交时直接返回首次请求的结果
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<BulkEnrollmentResult>> bulkEnroll(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody BulkEnrollmentRequest request) {
+        log.debug("[enrollment-service:{}] 批量选课请求 - studentId: {}, courseIds: {}",
+                serverPort, request.getStudentId(), request.getCourseIds());
+        
+        if (request.getStudentId() == null || request.getCourseIds() == null || request.getCourseIds().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.badRequest("studentId和courseIds不能为空"));
+        }
+        
+        if (idempotencyKey == null) {
+            return doBulkEnroll(request);
+        }
+        String fingerprint = "bulk|" + request.getStudentId() + "|" + String.join(",", request.getCourseIds());
+        return idempotencyStore.execute(idempotencyKey, fingerprint, () -> doBulkEnroll(request));
+    }
+
+    private ResponseEntity<ApiResponse<BulkEnrollmentResult>> doBulkEnroll(BulkEnrollmentRequest request) {
+        BulkEnrollmentResult result = enrollmentService.bulkEnroll(request.getStudentId(), request.getCourseIds());
+        return ResponseEntity.ok(ApiResponse.success("批量选课完成", result));
+    }
+
     /**
      * 学生退课
      * DELETE /api/enrollments/{id}
@@ -100,12 +266,15 @@ public class EnrollmentController {
     }
 
     /**
-     * 根据课程ID查询选课记录
-     * GET /api/enrollments/course/{courseId}
+     * 根据课程ID分页查询选课记录
+     * GET /api/enrollments/course/{courseId}?cursor={nextCursor}&limit={limit}
      */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<ApiResponse<List<Enrollment>>> getEnrollmentsByCourse(@PathVariable String courseId) {
-        List<Enrollment> enrollments = enrollmentService.findByCourseId(courseId);
+    public ResponseEntity<ApiResponse<CursorPage<Enrollment>>> getEnrollmentsByCourse(
+            @PathVariable String courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Enrollment> enrollments = enrollmentService.findByCourseId(courseId, cursor, limit);
         return ResponseEntity.ok(ApiResponse.success(enrollments));
     }
 
@@ -118,4 +287,12 @@ public class EnrollmentController {
         List<Enrollment> enrollments = enrollmentService.findByStudentId(studentId);
         return ResponseEntity.ok(ApiResponse.success(enrollments));
     }
+
+    private static ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("不支持的导出格式: " + format);
+        }
+    }
 }
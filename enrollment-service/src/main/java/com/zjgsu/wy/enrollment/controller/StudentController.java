@@ -1,6 +1,7 @@
 package com.zjgsu.wy.enrollment.controller;
 
 import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.common.CursorPage;
 import com.zjgsu.wy.enrollment.model.Student;
 import com.zjgsu.wy.enrollment.service.StudentService;
 import jakarta.validation.Valid;
@@ -9,8 +10,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 /**
  * 学生控制器
  */
@@ -23,12 +22,14 @@ public class StudentController {
     private StudentService studentService;
 
     /**
-     * 查询所有学生
-     * GET /api/students
+     * 分页查询学生
+     * GET /api/students?cursor={nextCursor}&limit={limit}
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Student>>> getAllStudents() {
-        List<Student> students = studentService.findAll();
+    public ResponseEntity<ApiResponse<CursorPage<Student>>> getAllStudents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Student> students = studentService.findPage(cursor, limit);
         return ResponseEntity.ok(ApiResponse.success(students));
     }
 
@@ -0,0 +1,18 @@
+package com.zjgsu.wy.enrollment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量选课请求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentRequest {
+    private String studentId;
+    private List<String> courseIds;
+}
@@ -0,0 +1,43 @@
+package com.zjgsu.wy.enrollment.dto;
+
+import com.zjgsu.wy.enrollment.model.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量选课结果 DTO，每门课程单独给出结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResult {
+    private String studentId;
+    private int succeeded;
+    private int failed;
+    private List<Item> items;
+
+    /**
+     * 单门课程的选课状态
+     */
+    public enum ItemStatus {
+        ENROLLED,
+        STUDENT_NOT_FOUND,
+        ALREADY_ENROLLED,
+        COURSE_FULL,
+        COURSE_NOT_FOUND,
+        SCHEDULE_CONFLICT
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private String courseId;
+        private ItemStatus status;
+        private String message;
+        private Enrollment enrollment;
+    }
+}
@@ -0,0 +1,30 @@
+package com.zjgsu.wy.enrollment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 课程变更流 DTO - 用于 Feign 调用 Catalog Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangeFeedDto {
+    private String source;
+    private long latestSeq;
+    private boolean truncated;
+    private List<CourseChangeDto> changes;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseChangeDto {
+        private long seq;
+        private String courseId;
+        private String type;
+        private long timestamp;
+    }
+}
@@ -4,44 +4,42 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
 /**
  * 课程信息 DTO - 用于 Feign 调用 Catalog Service
+ * 字段与 catalog-service 的 Course 一致，课程 ID 为字符串（见 CourseKey）
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CourseDto {
-    private Long id;
-    private String courseId;
-    private String name;
-    private String description;
-    private Integer credits;
-    private String department;
+    private String id;
+    private String code;
+    private String title;
+    private InstructorDto instructor;
+    /**
+     * catalog-service 返回的上课时间（单个时段），用于课表冲突检查
+     */
+    private ScheduleSlotDto schedule;
     private Integer capacity;
     private Integer enrolled;
-    private List<InstructorDto> instructors;
-    private List<ScheduleSlotDto> schedules;
+    private Long version;
     
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
     public static class InstructorDto {
-        private Long id;
+        private String id;
         private String name;
         private String email;
-        private String department;
     }
     
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
     public static class ScheduleSlotDto {
-        private Long id;
         private String dayOfWeek;
         private String startTime;
         private String endTime;
-        private String location;
+        private Integer expectedAttendance;
     }
 }
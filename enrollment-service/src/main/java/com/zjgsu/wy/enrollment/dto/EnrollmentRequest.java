@@ -0,0 +1,18 @@
+package com.zjgsu.wy.enrollment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单条选课请求 DTO（异步选课流水线使用）
+ * requestId 即受理时分配的选课记录 ID，处理成功后选课记录以该 ID 写入
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentRequest {
+    private String requestId;
+    private String courseId;
+    private String studentId;
+}
@@ -0,0 +1,36 @@
+package com.zjgsu.wy.enrollment.dto;
+
+import com.zjgsu.wy.enrollment.model.Enrollment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 异步选课受理凭据 DTO
+ * ticketId 与处理成功后写入的选课记录 ID 相同
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentTicket {
+    private String ticketId;
+    private String courseId;
+    private String studentId;
+    private Status status;
+    private BulkEnrollmentResult.ItemStatus result;
+    private String message;
+    private Enrollment enrollment;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+
+    /**
+     * 受理状态
+     */
+    public enum Status {
+        PENDING,
+        SUCCEEDED,
+        FAILED
+    }
+}
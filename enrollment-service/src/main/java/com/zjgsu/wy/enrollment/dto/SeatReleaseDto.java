@@ -0,0 +1,18 @@
+package com.zjgsu.wy.enrollment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 待释放的席位 DTO - 用于 Feign 调用 Catalog Service
+ * id 为发件箱记录 ID，catalog-service 据此识别重复投递
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReleaseDto {
+    private String id;
+    private String courseId;
+    private int quantity;
+}
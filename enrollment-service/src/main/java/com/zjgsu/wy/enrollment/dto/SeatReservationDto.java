@@ -0,0 +1,17 @@
+package com.zjgsu.wy.enrollment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 席位预占/释放结果 DTO - 用于 Feign 调用 Catalog Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReservationDto {
+    private String courseId;
+    private boolean success;
+    private Integer remaining;
+}
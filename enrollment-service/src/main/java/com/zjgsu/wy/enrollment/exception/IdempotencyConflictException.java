@@ -0,0 +1,10 @@
+package com.zjgsu.wy.enrollment.exception;
+
+/**
+ * 幂等键冲突异常 - 相同 Idempotency-Key 的请求仍在处理中
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
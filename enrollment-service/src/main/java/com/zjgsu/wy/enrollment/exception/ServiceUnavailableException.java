@@ -1,7 +1,8 @@
 package com.zjgsu.wy.enrollment.exception;
 
 /**
- * 服务不可用异常 - 用于 Feign Fallback
+ * 服务不可用异常 - 用于 Feign Fallback 和下游调用失败（超时、连接失败）
+ * 属于临时错误，幂等请求不缓存该结果，客户端可用同一 Idempotency-Key 重试
  */
 public class ServiceUnavailableException extends RuntimeException {
     public ServiceUnavailableException(String message) {
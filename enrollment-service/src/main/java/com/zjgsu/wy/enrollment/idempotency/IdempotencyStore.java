@@ -0,0 +1,115 @@
+package com.zjgsu.wy.enrollment.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zjgsu.wy.enrollment.exception.BusinessException;
+import com.zjgsu.wy.enrollment.exception.IdempotencyConflictException;
+import com.zjgsu.wy.enrollment.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 幂等请求存储
+ *
+ * 以客户端提供的 Idempotency-Key 为键记录请求结果，有容量上限并按写入时间过期。
+ * 重放请求直接返回首次请求的响应（或重新抛出首次请求的业务异常），不访问数据库和 catalog-service；
+ * 首次请求仍在处理中时返回 409，由客户端稍后重试。
+ * 只缓存确定性的结果（成功响应、业务校验失败、资源不存在），下游不可用等临时错误不缓存，重试时重新执行。
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    /**
+     * 重放响应携带的响应头
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * 幂等键最大长度
+     */
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${enrollment.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${enrollment.idempotency.ttl:24h}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "enrollment.idempotency");
+    }
+
+    /**
+     * 以幂等方式执行请求
+     * @param key 幂等键
+     * @param fingerprint 请求指纹，同一幂等键用于不同请求内容时拒绝
+     * @param action 首次请求时执行的处理逻辑
+     * @return 首次执行的响应或重放的响应
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String key, String fingerprint, Supplier<ResponseEntity<T>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency-Key 长度必须在 1 到 " + MAX_KEY_LENGTH + " 之间");
+        }
+
+        Entry pending = new Entry(fingerprint, null, null);
+        Entry existing = cache.asMap().putIfAbsent(key, pending);
+        if (existing != null) {
+            return (ResponseEntity<T>) replay(key, fingerprint, existing);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (BusinessException | ResourceNotFoundException e) {
+            cache.asMap().replace(key, pending, new Entry(fingerprint, null, e));
+            throw e;
+        } catch (RuntimeException e) {
+            cache.asMap().remove(key, pending);
+            throw e;
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.asMap().replace(key, pending, new Entry(fingerprint, response, null));
+        } else {
+            cache.asMap().remove(key, pending);
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> replay(String key, String fingerprint, Entry existing) {
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new BusinessException("Idempotency-Key 已用于不同的请求: " + key);
+        }
+        if (existing.failure() != null) {
+            log.debug("重放幂等请求（失败结果） - key: {}", key);
+            throw existing.failure();
+        }
+        if (existing.response() == null) {
+            throw new IdempotencyConflictException("相同 Idempotency-Key 的请求正在处理中，请稍后重试");
+        }
+        log.debug("重放幂等请求 - key: {}", key);
+        ResponseEntity<?> original = existing.response();
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+
+    /**
+     * 幂等记录，response 和 failure 均为空表示请求仍在处理中
+     */
+    private record Entry(String fingerprint, ResponseEntity<?> response, RuntimeException failure) {
+    }
+}
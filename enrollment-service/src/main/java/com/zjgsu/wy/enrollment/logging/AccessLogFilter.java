@@ -0,0 +1,72 @@
+package com.zjgsu.wy.enrollment.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问日志过滤器
+ *
+ * 每个请求完成后向 ACCESS logger 写一行 key=value 记录（方法、路径、状态码、耗时、用户），
+ * 由 logback-spring.xml 中独立的异步队列输出，请求线程上只做一次入队。
+ * 5xx 以 WARN 记录，不受 logging.sampling.access 采样影响；actuator 请求不记录。
+ */
+@Component
+@ConditionalOnProperty(name = "logging.access.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("ACCESS");
+
+    private static final String START_ATTR = AccessLogFilter.class.getName() + ".start";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // 异步请求在异步派发时才完成，开始时间保存在请求属性中
+        Long start = (Long) request.getAttribute(START_ATTR);
+        if (start == null) {
+            start = System.nanoTime();
+            request.setAttribute(START_ATTR, start);
+        }
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!request.isAsyncStarted()) {
+                log(request, failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, long start) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        String user = request.getHeader("X-User-Id");
+        if (status >= 500) {
+            ACCESS.warn("method={} path={} status={} ms={} user={}",
+                    request.getMethod(), request.getRequestURI(), status, millis, user != null ? user : "-");
+        } else if (ACCESS.isInfoEnabled()) {
+            ACCESS.info("method={} path={} status={} ms={} user={}",
+                    request.getMethod(), request.getRequestURI(), status, millis, user != null ? user : "-");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+}
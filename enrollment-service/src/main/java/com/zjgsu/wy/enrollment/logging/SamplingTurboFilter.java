@@ -0,0 +1,68 @@
+package com.zjgsu.wy.enrollment.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按日志类别采样的 Logback TurboFilter
+ *
+ * 在 logback-spring.xml 中以 category 元素（logger 名称前缀=保留比例）配置，最长前缀生效；
+ * 只对 INFO 及以下级别采样，WARN/ERROR 始终输出。判断发生在日志事件创建之前，被丢弃的日志不做格式化。
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final List<Category> categories = new ArrayList<>();
+
+    /**
+     * logger 名称 -> 保留比例，logger 数量有限，首次查找后缓存
+     */
+    private final ConcurrentMap<String, Double> rates = new ConcurrentHashMap<>();
+
+    public void addCategory(String category) {
+        int eq = category.lastIndexOf('=');
+        if (eq <= 0) {
+            addError("Invalid sampling category, expected prefix=rate: " + category);
+            return;
+        }
+        double rate = Double.parseDouble(category.substring(eq + 1).trim());
+        categories.add(new Category(category.substring(0, eq).trim(), Math.max(0, Math.min(1, rate))));
+        categories.sort(Comparator.comparingInt((Category c) -> c.prefix().length()).reversed());
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // WARN 及以上不采样；本来就不会输出的级别（如关闭的 DEBUG）交给正常的级别判断；
+        // isXxxEnabled() 调用没有 format，不参与采样，否则守卫和随后的日志调用会各采样一次
+        if (level == null || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        double rate = rates.computeIfAbsent(logger.getName(), this::rateFor);
+        if (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    private double rateFor(String loggerName) {
+        for (Category category : categories) {
+            if (loggerName.startsWith(category.prefix())) {
+                return category.rate();
+            }
+        }
+        return 1;
+    }
+
+    private record Category(String prefix, double rate) {
+    }
+}
@@ -1,12 +1,17 @@
 package com.zjgsu.wy.enrollment.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.zjgsu.wy.enrollment.common.SnowflakeIdGenerator;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * 选课记录实体类
+ * ID 由应用生成，实现 Persistable 让 save/saveAll 对新记录直接 INSERT，
+ * 而不是先按 ID SELECT 再决定插入还是合并
  */
 @Entity
 @Table(name = "enrollments",
@@ -20,16 +25,17 @@ import java.util.UUID;
         @Index(name = "idx_enrolled_at", columnList = "enrolled_at")
     }
 )
-public class Enrollment {
+public class Enrollment implements Persistable<String> {
     @Id
+    @Column(length = 36)
     @JsonProperty("id")
     private String id;
     
-    @Column(name = "course_id", nullable = false)
+    @Column(name = "course_id", nullable = false, length = 36)
     @JsonProperty("courseId")
     private String courseId;
     
-    @Column(name = "student_id", nullable = false)
+    @Column(name = "student_id", nullable = false, length = 50)
     @JsonProperty("studentId")
     private String studentId;
     
@@ -41,16 +47,20 @@ public class Enrollment {
     @Column(name = "enrolled_at", nullable = false, updatable = false)
     @JsonProperty("enrolledAt")
     private LocalDateTime enrolledAt;
+    
+    @Transient
+    @JsonIgnore
+    private boolean newEntity = true;
 
     // 默认构造函数
     public Enrollment() {
-        this.id = UUID.randomUUID().toString();
+        this.id = SnowflakeIdGenerator.next();
         this.status = EnrollmentStatus.ACTIVE;
     }
 
     // 全参构造函数
     public Enrollment(String courseId, String studentId) {
-        this.id = UUID.randomUUID().toString();
+        this.id = SnowflakeIdGenerator.next();
         this.courseId = courseId;
         this.studentId = studentId;
         this.status = EnrollmentStatus.ACTIVE;
@@ -66,7 +76,20 @@ public class Enrollment {
         }
     }
 
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
     // Getter和Setter方法
+    @Override
     public String getId() {
         return id;
     }
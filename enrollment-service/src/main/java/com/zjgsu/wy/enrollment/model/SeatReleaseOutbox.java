@@ -0,0 +1,132 @@
+package com.zjgsu.wy.enrollment.model;
+
+import com.zjgsu.wy.enrollment.common.SnowflakeIdGenerator;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 席位释放发件箱记录
+ *
+ * 退课（或选课事务回滚）需要归还 catalog-service 的席位时，在本地事务内写入一条记录，
+ * 由 SeatReleasePublisher 在事务外批量投递。availableAt 之前的记录不会被拉取：
+ * 投递中的记录以租约形式推后，投递失败的记录按退避时间推后。
+ * ID 由应用生成，与 Enrollment 一样实现 Persistable，入队时直接 INSERT，不先按 ID SELECT。
+ */
+@Entity
+@Table(name = "seat_release_outbox",
+    indexes = {
+        @Index(name = "idx_outbox_available_at", columnList = "available_at")
+    }
+)
+public class SeatReleaseOutbox implements Persistable<String> {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "course_id", nullable = false, length = 36)
+    private String courseId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Transient
+    private boolean newEntity = true;
+
+    // 默认构造函数
+    public SeatReleaseOutbox() {
+        this.id = SnowflakeIdGenerator.next();
+    }
+
+    // 全参构造函数
+    public SeatReleaseOutbox(String courseId, int quantity) {
+        this();
+        this.courseId = courseId;
+        this.quantity = quantity;
+        this.attempts = 0;
+        this.createdAt = LocalDateTime.now();
+        this.availableAt = this.createdAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    // Getter和Setter方法
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SeatReleaseOutbox{" +
+                "id='" + id + '\'' +
+                ", courseId='" + courseId + '\'' +
+                ", quantity=" + quantity +
+                ", attempts=" + attempts +
+                ", availableAt=" + availableAt +
+                '}';
+    }
+}
@@ -1,12 +1,12 @@
 package com.zjgsu.wy.enrollment.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.zjgsu.wy.enrollment.common.SnowflakeIdGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * 学生实体类
@@ -22,6 +22,7 @@ import java.util.UUID;
 )
 public class Student {
     @Id
+    @Column(length = 36)
     @JsonProperty("id")
     private String id;
     
@@ -57,12 +58,12 @@ public class Student {
 
     // 默认构造函数
     public Student() {
-        this.id = UUID.randomUUID().toString();
+        this.id = SnowflakeIdGenerator.next();
     }
 
     // 全参构造函数
     public Student(String studentId, String name, String major, Integer grade, String email) {
-        this.id = UUID.randomUUID().toString();
+        this.id = SnowflakeIdGenerator.next();
         this.studentId = studentId;
         this.name = name;
         this.major = major;
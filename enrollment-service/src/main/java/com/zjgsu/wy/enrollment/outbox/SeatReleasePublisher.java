@@ -0,0 +1,175 @@
+package com.zjgsu.wy.enrollment.outbox;
+
+import com.zjgsu.wy.enrollment.client.CatalogClient;
+import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.dto.SeatReleaseDto;
+import com.zjgsu.wy.enrollment.dto.SeatReservationDto;
+import com.zjgsu.wy.enrollment.model.SeatReleaseOutbox;
+import com.zjgsu.wy.enrollment.repository.SeatReleaseOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 席位释放发件箱投递器
+ *
+ * 选课事务只在本地写入发件箱记录，不在事务内调用 catalog-service。投递器定时拉取到期记录，
+ * 一批记录一次调用（catalog-service 合并同一课程的记录）；失败时按指数退避重试，
+ * 直到 catalog-service 的已选人数收敛。
+ *
+ * 拉取时以 SKIP LOCKED 锁定并写入租约后立即提交，远程调用不占用数据库事务，多实例可并行投递。
+ * 投递语义为至少一次：调用超时、实例在调用成功后删除记录前崩溃时，记录会被重复投递；
+ * 每条记录带上自身 ID，catalog-service 在扣减的同一事务内记录回执，重复投递不会重复扣减。
+ */
+@Component
+@Slf4j
+public class SeatReleasePublisher {
+
+    /**
+     * 单次调用 catalog-service 最多包含的记录数，与其批量接口上限一致
+     */
+    private static final int MAX_ENTRIES_PER_CALL = 200;
+
+    @Autowired
+    private SeatReleaseOutboxRepository outboxRepository;
+
+    @Autowired
+    private CatalogClient catalogClient;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${enrollment.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${enrollment.outbox.lease:30s}")
+    private Duration lease;
+
+    @Value("${enrollment.outbox.max-backoff:5m}")
+    private Duration maxBackoff;
+
+    /**
+     * 在当前事务内登记需要释放的席位（退课）
+     */
+    public void enqueue(String courseId) {
+        outboxRepository.save(new SeatReleaseOutbox(courseId, 1));
+    }
+
+    /**
+     * 登记一组已预占的席位：当前事务回滚时，在独立事务中写入发件箱归还这些席位
+     *
+     * 用于预占成功后选课记录写入失败的补偿；事务提交时不做任何事。
+     */
+    public void releaseOnRollback(Collection<String> courseIds) {
+        if (courseIds.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        List<String> reserved = List.copyOf(courseIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    newTransaction().executeWithoutResult(tx -> {
+                        for (String courseId : reserved) {
+                            enqueue(courseId);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    log.error("Failed to enqueue seat release after rollback - courseIds: {}", reserved, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 定时投递到期记录，每轮取满一批时继续取下一批
+     */
+    @Scheduled(fixedDelayString = "${enrollment.outbox.poll-interval:1000}")
+    public void publish() {
+        try {
+            int published;
+            do {
+                published = publishBatch();
+            } while (published >= batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Seat release outbox publish failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 投递一批记录
+     * @return 本批拉取的记录数
+     */
+    int publishBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SeatReleaseOutbox> claimed = newTransaction().execute(tx -> {
+            List<SeatReleaseOutbox> due = outboxRepository.lockDue(now, Limit.of(batchSize));
+            if (!due.isEmpty()) {
+                outboxRepository.lease(ids(due), now.plus(lease));
+            }
+            return due;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        for (int from = 0; from < claimed.size(); from += MAX_ENTRIES_PER_CALL) {
+            deliver(claimed.subList(from, Math.min(from + MAX_ENTRIES_PER_CALL, claimed.size())));
+        }
+        return claimed.size();
+    }
+
+    private void deliver(List<SeatReleaseOutbox> entries) {
+        List<String> ids = ids(entries);
+        List<SeatReleaseDto> releases = entries.stream()
+                .map(entry -> new SeatReleaseDto(entry.getId(), entry.getCourseId(), entry.getQuantity()))
+                .toList();
+        try {
+            ApiResponse<List<SeatReservationDto>> response = catalogClient.releaseSeats(releases);
+            if (response == null || response.getData() == null) {
+                throw new IllegalStateException("empty response from catalog-service");
+            }
+        } catch (RuntimeException e) {
+            int attempts = entries.stream().mapToInt(SeatReleaseOutbox::getAttempts).max().orElse(0);
+            LocalDateTime retryAt = LocalDateTime.now().plus(backoff(attempts));
+            newTransaction().executeWithoutResult(tx -> outboxRepository.reschedule(ids, retryAt));
+            log.warn("Seat release delivery failed for {} entries (attempt {}), retry at {}: {}",
+                    entries.size(), attempts + 1, retryAt, e.getMessage());
+            return;
+        }
+        // 课程不存在或已选人数已为 0 时 catalog-service 返回 success=false，同样视为投递完成
+        newTransaction().executeWithoutResult(tx -> outboxRepository.deleteAllByIdInBatch(ids));
+        log.debug("Released seats from {} outbox entries", entries.size());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts, 16));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static List<String> ids(List<SeatReleaseOutbox> entries) {
+        return entries.stream().map(SeatReleaseOutbox::getId).toList();
+    }
+}
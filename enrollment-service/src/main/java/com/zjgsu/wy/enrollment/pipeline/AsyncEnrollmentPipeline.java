@@ -0,0 +1,230 @@
+package com.zjgsu.wy.enrollment.pipeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zjgsu.wy.enrollment.common.SnowflakeIdGenerator;
+import com.zjgsu.wy.enrollment.dto.BulkEnrollmentResult;
+import com.zjgsu.wy.enrollment.dto.EnrollmentRequest;
+import com.zjgsu.wy.enrollment.dto.EnrollmentTicket;
+import com.zjgsu.wy.enrollment.exception.ServiceUnavailableException;
+import com.zjgsu.wy.enrollment.model.Enrollment;
+import com.zjgsu.wy.enrollment.repository.EnrollmentRepository;
+import com.zjgsu.wy.enrollment.service.EnrollmentService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步选课流水线
+ *
+ * 控制器只做参数校验并把请求放入有界队列，立即返回 202 和受理凭据；固定数量的工作线程
+ * 每次从队列取出一批请求交给 EnrollmentService.enrollBatch，一批只做一次批量校验、
+ * 一次批量预占和一次批量写入，数据库看到的是平稳的批量写。队列满时拒绝受理（503），
+ * 由客户端稍后重试，而不是让请求线程堆积。
+ *
+ * 受理凭据保存在本实例内存中；凭据 ID 即选课记录 ID（雪花 ID，按时间递增写入主键索引），
+ * 成功的结果在其他实例上也可以通过数据库查到。
+ */
+@Component
+@Slf4j
+public class AsyncEnrollmentPipeline {
+
+    /**
+     * 单批最大请求数，受 catalog-service 批量预占接口上限约束
+     */
+    private static final int MAX_BATCH_SIZE = 200;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${enrollment.async.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${enrollment.async.workers:4}")
+    private int workers;
+
+    @Value("${enrollment.async.batch-size:100}")
+    private int batchSize;
+
+    @Value("${enrollment.async.ticket-ttl:10m}")
+    private Duration ticketTtl;
+
+    @Value("${enrollment.async.ticket-maximum-size:100000}")
+    private long ticketMaximumSize;
+
+    private BlockingQueue<EnrollmentTicket> queue;
+
+    private Cache<String, EnrollmentTicket> tickets;
+
+    private ExecutorService executor;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        tickets = Caffeine.newBuilder()
+                .maximumSize(ticketMaximumSize)
+                .expireAfterWrite(ticketTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tickets, "enrollment.async.tickets");
+        Gauge.builder("enrollment.async.queue.size", queue, BlockingQueue::size)
+                .description("Enrollment requests waiting for a worker")
+                .register(meterRegistry);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "enrollment-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        log.info("Async enrollment pipeline started: workers={}, batchSize={}, queueCapacity={}",
+                workers, batchSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        List<EnrollmentTicket> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        for (EnrollmentTicket ticket : abandoned) {
+            complete(ticket, null, false, "服务关闭，请求未处理，请重新提交", null);
+        }
+    }
+
+    /**
+     * 受理选课请求
+     * @return 受理凭据（PENDING）
+     * @throws ServiceUnavailableException 队列已满
+     */
+    public EnrollmentTicket submit(String courseId, String studentId) {
+        EnrollmentTicket ticket = new EnrollmentTicket(SnowflakeIdGenerator.next(), courseId, studentId,
+                EnrollmentTicket.Status.PENDING, null, "已受理，等待处理", null, LocalDateTime.now(), null);
+        tickets.put(ticket.getTicketId(), ticket);
+        if (!running || !queue.offer(ticket)) {
+            tickets.invalidate(ticket.getTicketId());
+            throw new ServiceUnavailableException("选课请求过多，请稍后再试");
+        }
+        return snapshot(ticket);
+    }
+
+    /**
+     * 查询受理凭据状态
+     * 本实例没有该凭据时回查数据库，选课记录已存在即视为成功（可能由其他实例处理）
+     */
+    public Optional<EnrollmentTicket> find(String ticketId) {
+        EnrollmentTicket ticket = tickets.getIfPresent(ticketId);
+        if (ticket != null) {
+            return Optional.of(snapshot(ticket));
+        }
+        return enrollmentRepository.findById(ticketId).map(enrollment -> new EnrollmentTicket(
+                ticketId, enrollment.getCourseId(), enrollment.getStudentId(), EnrollmentTicket.Status.SUCCEEDED,
+                BulkEnrollmentResult.ItemStatus.ENROLLED, "选课成功", enrollment, null, null));
+    }
+
+    private void work() {
+        List<EnrollmentTicket> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                EnrollmentTicket first = queue.take();
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Async enrollment worker failed to process a batch of {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 处理一批请求；整批失败（如唯一约束冲突、下游不可用）时逐条重试，把失败隔离到单个请求
+     */
+    private void process(List<EnrollmentTicket> batch) {
+        try {
+            apply(batch, enrollmentService.enrollBatch(toRequests(batch)));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                EnrollmentTicket ticket = batch.get(0);
+                log.warn("Async enrollment failed - ticketId: {}, error: {}", ticket.getTicketId(), e.getMessage());
+                complete(ticket, null, false, e.getMessage(), null);
+                return;
+            }
+            log.warn("Async enrollment batch of {} failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (EnrollmentTicket ticket : batch) {
+                process(List.of(ticket));
+            }
+        }
+    }
+
+    private void apply(List<EnrollmentTicket> batch, List<BulkEnrollmentResult.Item> items) {
+        for (int i = 0; i < batch.size(); i++) {
+            BulkEnrollmentResult.Item item = items.get(i);
+            boolean succeeded = item.getStatus() == BulkEnrollmentResult.ItemStatus.ENROLLED;
+            complete(batch.get(i), item.getStatus(), succeeded, item.getMessage(), item.getEnrollment());
+        }
+    }
+
+    private void complete(EnrollmentTicket ticket, BulkEnrollmentResult.ItemStatus result, boolean succeeded,
+                          String message, Enrollment enrollment) {
+        synchronized (ticket) {
+            ticket.setStatus(succeeded ? EnrollmentTicket.Status.SUCCEEDED : EnrollmentTicket.Status.FAILED);
+            ticket.setResult(result);
+            ticket.setMessage(message);
+            ticket.setEnrollment(enrollment);
+            ticket.setCompletedAt(LocalDateTime.now());
+        }
+    }
+
+    private static EnrollmentTicket snapshot(EnrollmentTicket ticket) {
+        synchronized (ticket) {
+            return new EnrollmentTicket(ticket.getTicketId(), ticket.getCourseId(), ticket.getStudentId(),
+                    ticket.getStatus(), ticket.getResult(), ticket.getMessage(), ticket.getEnrollment(),
+                    ticket.getSubmittedAt(), ticket.getCompletedAt());
+        }
+    }
+
+    private static List<EnrollmentRequest> toRequests(List<EnrollmentTicket> batch) {
+        List<EnrollmentRequest> requests = new ArrayList<>(batch.size());
+        for (EnrollmentTicket ticket : batch) {
+            requests.add(new EnrollmentRequest(ticket.getTicketId(), ticket.getCourseId(), ticket.getStudentId()));
+        }
+        return requests;
+    }
+}
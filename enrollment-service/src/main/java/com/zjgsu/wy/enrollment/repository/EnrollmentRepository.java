@@ -2,11 +2,13 @@ package com.zjgsu.wy.enrollment.repository;
 
 import com.zjgsu.wy.enrollment.model.Enrollment;
 import com.zjgsu.wy.enrollment.model.EnrollmentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,9 +19,24 @@ import java.util.Optional;
 public interface EnrollmentRepository extends JpaRepository<Enrollment, String> {
     
     /**
-     * 根据课程ID查询选课记录
+     * 按主键升序查询第一页选课记录（游标分页）
      */
-    List<Enrollment> findByCourseId(String courseId);
+    List<Enrollment> findAllByOrderByIdAsc(Limit limit);
+    
+    /**
+     * 按主键升序查询游标之后的一页选课记录（游标分页）
+     */
+    List<Enrollment> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+    
+    /**
+     * 按主键升序查询某门课程的第一页选课记录（游标分页，走 idx_course_id）
+     */
+    List<Enrollment> findByCourseIdOrderByIdAsc(String courseId, Limit limit);
+    
+    /**
+     * 按主键升序查询某门课程游标之后的一页选课记录（游标分页，走 idx_course_id）
+     */
+    List<Enrollment> findByCourseIdAndIdGreaterThanOrderByIdAsc(String courseId, String afterId, Limit limit);
     
     /**
      * 根据学生ID查询选课记录
@@ -47,6 +64,20 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, String>
     @Query("SELECT CASE WHEN COUNT(e) > 0 THEN true ELSE false END FROM Enrollment e WHERE e.courseId = :courseId AND e.studentId = :studentId AND e.status = 'ACTIVE'")
     boolean existsByCourseIdAndStudentId(@Param("courseId") String courseId, @Param("studentId") String studentId);
     
+    /**
+     * 查询学生在给定课程中已有的选课记录（任意状态，批量选课去重使用）
+     */
+    @Query("SELECT e FROM Enrollment e WHERE e.studentId = :studentId AND e.courseId IN :courseIds")
+    List<Enrollment> findByStudentIdAndCourseIdIn(@Param("studentId") String studentId,
+                                                 @Param("courseIds") Collection<String> courseIds);
+    
+    /**
+     * 查询给定学生和课程组合范围内已有的选课记录（任意状态，异步选课批处理去重使用）
+     */
+    @Query("SELECT e FROM Enrollment e WHERE e.studentId IN :studentIds AND e.courseId IN :courseIds")
+    List<Enrollment> findByStudentIdInAndCourseIdIn(@Param("studentIds") Collection<String> studentIds,
+                                                    @Param("courseIds") Collection<String> courseIds);
+    
     /**
      * 统计某门课程的活跃选课人数
      */
@@ -0,0 +1,46 @@
+package com.zjgsu.wy.enrollment.repository;
+
+import com.zjgsu.wy.enrollment.model.SeatReleaseOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 席位释放发件箱数据访问层
+ */
+@Repository
+public interface SeatReleaseOutboxRepository extends JpaRepository<SeatReleaseOutbox, String> {
+
+    /**
+     * 锁定一批到期记录，已被其他实例锁定的记录直接跳过（SELECT ... FOR UPDATE SKIP LOCKED）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM SeatReleaseOutbox o WHERE o.availableAt <= :now ORDER BY o.availableAt")
+    List<SeatReleaseOutbox> lockDue(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * 推后记录的可拉取时间（投递租约）
+     */
+    @Modifying
+    @Query("UPDATE SeatReleaseOutbox o SET o.availableAt = :until WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<String> ids, @Param("until") LocalDateTime until);
+
+    /**
+     * 投递失败，累加重试次数并按退避时间推后
+     */
+    @Modifying
+    @Query("UPDATE SeatReleaseOutbox o SET o.attempts = o.attempts + 1, o.availableAt = :retryAt WHERE o.id IN :ids")
+    int reschedule(@Param("ids") Collection<String> ids, @Param("retryAt") LocalDateTime retryAt);
+}
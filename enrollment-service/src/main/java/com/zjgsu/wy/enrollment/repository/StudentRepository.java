@@ -1,9 +1,11 @@
 package com.zjgsu.wy.enrollment.repository;
 
 import com.zjgsu.wy.enrollment.model.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,11 +15,26 @@ import java.util.Optional;
 @Repository
 public interface StudentRepository extends JpaRepository<Student, String> {
     
+    /**
+     * 按主键升序查询第一页学生（游标分页）
+     */
+    List<Student> findAllByOrderByIdAsc(Limit limit);
+    
+    /**
+     * 按主键升序查询游标之后的一页学生（游标分页）
+     */
+    List<Student> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+    
     /**
      * 根据学号查询学生
      */
     Optional<Student> findByStudentId(String studentId);
     
+    /**
+     * 根据学号批量查询学生
+     */
+    List<Student> findByStudentIdIn(Collection<String> studentIds);
+    
     /**
      * 根据邮箱查询学生
      */
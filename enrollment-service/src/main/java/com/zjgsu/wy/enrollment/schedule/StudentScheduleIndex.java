@@ -0,0 +1,269 @@
+package com.zjgsu.wy.enrollment.schedule;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zjgsu.wy.enrollment.cache.CourseCache;
+import com.zjgsu.wy.enrollment.dto.CourseDto;
+import com.zjgsu.wy.enrollment.model.Enrollment;
+import com.zjgsu.wy.enrollment.model.EnrollmentStatus;
+import com.zjgsu.wy.enrollment.repository.EnrollmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 学生课表冲突索引
+ *
+ * 按学生缓存其活跃选课的上课时段，每个上课日一棵以开始时间为键的 TreeMap。同一学生的时段
+ * 互不重叠，新时段只需与开始时间不晚于它的最后一个时段、以及之后的第一个时段比较，
+ * 冲突检查为 O(log n)。学生首次选课时从本地选课记录和课程缓存构建，之后由选课/退课增量维护，
+ * 选课热路径上不再访问 catalog-service。
+ *
+ * 索引只覆盖本实例，其他实例的选课通过 ttl 过期后重新构建收敛；课程时间被修改时
+ * 由课程变更流失效包含该课程的学生。
+ */
+@Component
+@Slf4j
+public class StudentScheduleIndex {
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final CourseCache courseCache;
+
+    private final Cache<String, StudentSchedule> schedules;
+
+    public StudentScheduleIndex(EnrollmentRepository enrollmentRepository,
+                                CourseCache courseCache,
+                                MeterRegistry meterRegistry,
+                                @Value("${enrollment.schedule-index.maximum-size:100000}") long maximumSize,
+                                @Value("${enrollment.schedule-index.ttl:10m}") Duration ttl) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseCache = courseCache;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, schedules, "enrollment.schedule");
+    }
+
+    /**
+     * 为学生占用课程的上课时段
+     *
+     * 冲突时不占用并返回冲突课程 ID；占用成功后若当前事务回滚，撤销本次占用。
+     * 同一学生同一课程的并发选课各自占用一次，只有全部回滚时时段才被移除，
+     * 输掉唯一约束的一方回滚不会释放另一方已提交的时段。课程没有有效的上课时间时不做检查。
+     * @return 冲突课程 ID，无冲突时返回 null
+     */
+    public String claim(String studentId, String courseId, CourseDto course) {
+        TimeSlot slot = TimeSlot.of(courseId, course);
+        if (slot == null) {
+            return null;
+        }
+        StudentSchedule schedule = scheduleOf(studentId);
+        String conflict = schedule.claim(slot);
+        if (conflict == null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        schedule.unclaim(slot.courseId());
+                    }
+                }
+            });
+        }
+        return conflict;
+    }
+
+    /**
+     * 释放学生在某门课程上占用的时段（退课），在当前事务提交后生效
+     */
+    public void release(String studentId, String courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseNow(studentId, courseId);
+                }
+            });
+        } else {
+            releaseNow(studentId, courseId);
+        }
+    }
+
+    /**
+     * 课程信息变更（可能修改了上课时间）时，失效选了该课程的学生
+     */
+    public void invalidateCourse(String courseId) {
+        schedules.asMap().values().removeIf(schedule -> schedule.contains(courseId));
+    }
+
+    /**
+     * 失效全部学生
+     */
+    public void invalidateAll() {
+        schedules.invalidateAll();
+    }
+
+    private void releaseNow(String studentId, String courseId) {
+        StudentSchedule schedule = schedules.getIfPresent(studentId);
+        if (schedule != null) {
+            schedule.release(courseId);
+        }
+    }
+
+    /**
+     * 在缓存的 compute 之外构建（构建要查数据库和课程缓存，不能占着 ConcurrentHashMap 的桶锁做 I/O），
+     * 同一学生并发首次选课时可能重复构建，只保留先放入的一份
+     */
+    private StudentSchedule scheduleOf(String studentId) {
+        StudentSchedule schedule = schedules.getIfPresent(studentId);
+        if (schedule != null) {
+            return schedule;
+        }
+        StudentSchedule loaded = load(studentId);
+        StudentSchedule existing = schedules.asMap().putIfAbsent(studentId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private StudentSchedule load(String studentId) {
+        List<Enrollment> active = enrollmentRepository.findByStudentIdAndStatus(studentId, EnrollmentStatus.ACTIVE);
+        StudentSchedule schedule = new StudentSchedule();
+        if (active.isEmpty()) {
+            return schedule;
+        }
+        Map<String, CourseDto> courses = courseCache.getCourses(
+                active.stream().map(Enrollment::getCourseId).toList());
+        for (Map.Entry<String, CourseDto> entry : courses.entrySet()) {
+            TimeSlot slot = TimeSlot.of(entry.getKey(), entry.getValue());
+            if (slot != null) {
+                schedule.add(slot);
+            }
+        }
+        log.debug("Loaded schedule index for student {}: {} slots", studentId, schedule.size());
+        return schedule;
+    }
+
+    /**
+     * 单个学生的课表，按上课日分组、按开始时间排序
+     *
+     * holders 记录每门课程上的占用次数（已提交的选课和尚未结束的选课事务），
+     * 事务回滚只撤销自己的一次占用。
+     */
+    static final class StudentSchedule {
+        private final Map<String, TreeMap<Integer, TimeSlot>> byDay = new HashMap<>();
+        private final Map<String, TimeSlot> byCourse = new HashMap<>();
+        private final Map<String, Integer> holders = new HashMap<>();
+
+        /**
+         * 占用时段：与其他课程冲突时返回冲突课程 ID；课程已在课表中时只增加占用次数
+         */
+        synchronized String claim(TimeSlot slot) {
+            if (byCourse.containsKey(slot.courseId())) {
+                holders.merge(slot.courseId(), 1, Integer::sum);
+                return null;
+            }
+            TreeMap<Integer, TimeSlot> day = byDay.get(slot.dayOfWeek());
+            if (day != null) {
+                Map.Entry<Integer, TimeSlot> before = day.floorEntry(slot.start());
+                if (before != null && before.getValue().end() > slot.start()) {
+                    return before.getValue().courseId();
+                }
+                Map.Entry<Integer, TimeSlot> after = day.higherEntry(slot.start());
+                if (after != null && after.getKey() < slot.end()) {
+                    return after.getValue().courseId();
+                }
+            }
+            add(slot);
+            return null;
+        }
+
+        /**
+         * 直接加入时段（构建索引时使用），历史数据中开始时间相同的时段保留结束较晚的一个
+         */
+        synchronized void add(TimeSlot slot) {
+            byCourse.put(slot.courseId(), slot);
+            holders.put(slot.courseId(), 1);
+            byDay.computeIfAbsent(slot.dayOfWeek(), d -> new TreeMap<>())
+                    .merge(slot.start(), slot, (a, b) -> a.end() >= b.end() ? a : b);
+        }
+
+        /**
+         * 撤销一次占用（选课事务回滚），没有其他占用时移除时段
+         */
+        synchronized void unclaim(String courseId) {
+            if (holders.computeIfPresent(courseId, (id, count) -> count > 1 ? count - 1 : null) == null) {
+                release(courseId);
+            }
+        }
+
+        /**
+         * 移除课程时段（退课）
+         */
+        synchronized void release(String courseId) {
+            holders.remove(courseId);
+            TimeSlot slot = byCourse.remove(courseId);
+            if (slot == null) {
+                return;
+            }
+            TreeMap<Integer, TimeSlot> day = byDay.get(slot.dayOfWeek());
+            if (day != null) {
+                day.remove(slot.start(), slot);
+                if (day.isEmpty()) {
+                    byDay.remove(slot.dayOfWeek());
+                }
+            }
+        }
+
+        synchronized boolean contains(String courseId) {
+            return byCourse.containsKey(courseId);
+        }
+
+        synchronized int size() {
+            return byCourse.size();
+        }
+    }
+
+    /**
+     * 上课时段，开始/结束时间为当天的分钟数，区间左闭右开（首尾相接不算冲突）
+     */
+    record TimeSlot(String courseId, String dayOfWeek, int start, int end) {
+
+        static TimeSlot of(String courseId, CourseDto course) {
+            CourseDto.ScheduleSlotDto schedule = course == null ? null : course.getSchedule();
+            if (schedule == null || schedule.getDayOfWeek() == null
+                    || schedule.getStartTime() == null || schedule.getEndTime() == null) {
+                return null;
+            }
+            try {
+                int start = minuteOfDay(schedule.getStartTime());
+                int end = minuteOfDay(schedule.getEndTime());
+                if (end <= start) {
+                    return null;
+                }
+                return new TimeSlot(courseId,
+                        schedule.getDayOfWeek().trim().toUpperCase(Locale.ROOT), start, end);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+
+        private static int minuteOfDay(String time) {
+            LocalTime parsed = LocalTime.parse(time.trim());
+            return parsed.getHour() * 60 + parsed.getMinute();
+        }
+    }
+}
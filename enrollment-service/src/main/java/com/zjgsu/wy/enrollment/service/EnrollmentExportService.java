@@ -0,0 +1,181 @@
+package com.zjgsu.wy.enrollment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.zjgsu.wy.enrollment.dto.ExportFormat;
+import com.zjgsu.wy.enrollment.exception.ServiceUnavailableException;
+import com.zjgsu.wy.enrollment.model.Enrollment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * 选课记录流式导出服务
+ *
+ * 通过 JPA Stream 逐行读取，逐行写出 NDJSON/CSV，每行写出后立即从持久化上下文中分离实体，
+ * 导出百万级记录时内存占用保持恒定。MySQL 下以 fetch size = Integer.MIN_VALUE 让驱动逐行流式读取，
+ * 只作用于导出语句，不需要在连接串上全局开启 useCursorFetch（那会让所有查询改用服务端预处理语句）。
+ */
+@Service
+@Slf4j
+public class EnrollmentExportService {
+
+    /**
+     * 每写出多少行刷新一次输出流，让客户端尽早收到数据
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private static final String CSV_HEADER = "id,courseId,studentId,status,enrolledAt";
+
+    /**
+     * 导出所有课程：按主键顺序扫描
+     */
+    private static final String EXPORT_ALL_QUERY = "SELECT e FROM Enrollment e " +
+            "WHERE (:from IS NULL OR e.enrolledAt >= :from) AND (:to IS NULL OR e.enrolledAt < :to) " +
+            "ORDER BY e.id";
+
+    /**
+     * 导出单门课程：课程条件不与 IS NULL 组合，走 idx_course_id（二级索引按 course_id, id 有序，无需排序）
+     */
+    private static final String EXPORT_COURSE_QUERY = "SELECT e FROM Enrollment e WHERE e.courseId = :courseId " +
+            "AND (:from IS NULL OR e.enrolledAt >= :from) AND (:to IS NULL OR e.enrolledAt < :to) " +
+            "ORDER BY e.id";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectWriter jsonWriter;
+
+    /**
+     * 并发导出数限制，避免多个大导出同时占用数据库连接
+     */
+    private final Semaphore permits;
+
+    /**
+     * 导出语句的 fetch size：MySQL 为 Integer.MIN_VALUE（驱动逐行流式读取），其他数据库为配置值
+     */
+    private final int fetchSize;
+
+    public EnrollmentExportService(ObjectMapper objectMapper,
+                                   @Value("${enrollment.export.max-concurrent:2}") int maxConcurrent,
+                                   @Value("${enrollment.export.fetch-size:500}") int fetchSize,
+                                   @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.jsonWriter = objectMapper.writerFor(Enrollment.class);
+        this.permits = new Semaphore(maxConcurrent);
+        this.fetchSize = datasourceUrl.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    /**
+     * 申请导出许可，超过并发上限时直接拒绝（503）
+     * 必须在请求线程中调用，导出结束后调用 {@link #release()}
+     */
+    public void acquire() {
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException("导出任务过多，请稍后再试");
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    /**
+     * 按条件流式导出选课记录
+     * @param courseId 课程ID，为空表示所有课程
+     * @param from 选课时间下界（含），为空表示不限
+     * @param to 选课时间上界（不含），为空表示不限
+     * @param format 导出格式
+     * @param out 输出流
+     * @return 导出的记录数
+     */
+    @Transactional(readOnly = true)
+    public long export(String courseId, LocalDateTime from, LocalDateTime to,
+                       ExportFormat format, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            buffered.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            buffered.write(NEWLINE);
+        }
+
+        long count = 0;
+        try (Stream<Enrollment> stream = streamForExport(courseId, from, to)) {
+            Iterator<Enrollment> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Enrollment enrollment = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    buffered.write(toCsvLine(enrollment).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    buffered.write(jsonWriter.writeValueAsBytes(enrollment));
+                }
+                buffered.write(NEWLINE);
+                entityManager.detach(enrollment);
+
+                if (++count % FLUSH_INTERVAL == 0) {
+                    buffered.flush();
+                }
+            }
+        }
+        buffered.flush();
+
+        log.info("选课记录导出完成 - courseId: {}, from: {}, to: {}, format: {}, rows: {}",
+                courseId, from, to, format, count);
+        return count;
+    }
+
+    /**
+     * 按条件流式读取选课记录，调用方必须在事务内消费并关闭 Stream
+     */
+    private Stream<Enrollment> streamForExport(String courseId, LocalDateTime from, LocalDateTime to) {
+        TypedQuery<Enrollment> query = courseId != null
+                ? entityManager.createQuery(EXPORT_COURSE_QUERY, Enrollment.class).setParameter("courseId", courseId)
+                : entityManager.createQuery(EXPORT_ALL_QUERY, Enrollment.class);
+        return query.setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HINT_FETCH_SIZE, fetchSize)
+                .setHint(HINT_READ_ONLY, true)
+                .setHint(HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+
+    private static String toCsvLine(Enrollment enrollment) {
+        return String.join(",",
+                csv(enrollment.getId()),
+                csv(enrollment.getCourseId()),
+                csv(enrollment.getStudentId()),
+                csv(enrollment.getStatus() != null ? enrollment.getStatus().name() : null),
+                csv(enrollment.getEnrolledAt() != null ? enrollment.getEnrolledAt().toString() : null));
+    }
+
+    /**
+     * CSV 字段转义（RFC 4180）
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,22 +1,40 @@
 package com.zjgsu.wy.enrollment.service;
 
+import com.zjgsu.wy.enrollment.cache.CourseCache;
 import com.zjgsu.wy.enrollment.client.CatalogClient;
 import com.zjgsu.wy.enrollment.common.ApiResponse;
+import com.zjgsu.wy.enrollment.common.CourseKey;
+import com.zjgsu.wy.enrollment.common.CursorPage;
+import com.zjgsu.wy.enrollment.dto.BulkEnrollmentResult;
 import com.zjgsu.wy.enrollment.dto.CourseDto;
+import com.zjgsu.wy.enrollment.dto.EnrollmentRequest;
+import com.zjgsu.wy.enrollment.dto.SeatReservationDto;
 import com.zjgsu.wy.enrollment.exception.BusinessException;
 import com.zjgsu.wy.enrollment.exception.ResourceNotFoundException;
+import com.zjgsu.wy.enrollment.exception.ServiceUnavailableException;
 import com.zjgsu.wy.enrollment.model.Enrollment;
 import com.zjgsu.wy.enrollment.model.EnrollmentStatus;
 import com.zjgsu.wy.enrollment.model.Student;
+import com.zjgsu.wy.enrollment.outbox.SeatReleasePublisher;
 import com.zjgsu.wy.enrollment.repository.EnrollmentRepository;
 import com.zjgsu.wy.enrollment.repository.StudentRepository;
+import com.zjgsu.wy.enrollment.schedule.StudentScheduleIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 选课服务层
@@ -27,6 +45,11 @@ import java.util.List;
 @Slf4j
 public class EnrollmentService {
     
+    /**
+     * 批量选课单次允许的最大课程数
+     */
+    public static final int MAX_BULK_SIZE = 20;
+    
     @Autowired
     private EnrollmentRepository enrollmentRepository;
     
@@ -35,12 +58,29 @@ public class EnrollmentService {
     
     @Autowired
     private CatalogClient catalogClient;
+    
+    @Autowired
+    private CourseCache courseCache;
+    
+    @Autowired
+    private StudentScheduleIndex studentScheduleIndex;
+    
+    @Autowired
+    private SeatReleasePublisher seatReleasePublisher;
 
     /**
-     * 查询所有选课记录
+     * 游标分页查询选课记录，按 ID 升序
+     * @param cursor 上一页返回的 nextCursor，为空表示第一页
+     * @param limit 页大小，超过 CursorPage.MAX_LIMIT 时截断
      */
-    public List<Enrollment> findAll() {
-        return enrollmentRepository.findAll();
+    public CursorPage<Enrollment> findPage(String cursor, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        String afterId = decodeCursor(cursor);
+        // 多取一条用于判断是否还有下一页
+        List<Enrollment> fetched = afterId == null
+                ? enrollmentRepository.findAllByOrderByIdAsc(Limit.of(size + 1))
+                : enrollmentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        return CursorPage.of(fetched, size, Enrollment::getId);
     }
 
     /**
@@ -57,55 +97,56 @@ public class EnrollmentService {
      */
     @Transactional
     public Enrollment enroll(String courseId, String studentId) {
-        log.info("开始选课流程 - courseId: {}, studentId: {}", courseId, studentId);
+        log.debug("开始选课流程 - courseId: {}, studentId: {}", courseId, studentId);
         
         // 1. 验证学生是否存在
         Student student = studentRepository.findByStudentId(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student", studentId));
         log.debug("学生验证通过: {}", studentId);
         
-        // 2. 使用 Feign 调用课程目录服务验证课程是否存在
-        Long courseIdLong;
-        try {
-            courseIdLong = Long.parseLong(courseId);
-        } catch (NumberFormatException e) {
+        // 2. 验证课程是否存在（优先读取本地课程缓存，未命中时通过 Feign 回源课程目录服务）
+        CourseKey courseKey = CourseKey.parse(courseId);
+        if (courseKey == null) {
             throw new BusinessException("Invalid course ID format");
         }
         
-        ApiResponse<CourseDto> courseResponse;
+        CourseDto course;
         try {
-            log.debug("调用 Catalog Service 获取课程信息: {}", courseId);
-            courseResponse = catalogClient.getCourse(courseIdLong);
+            course = courseCache.getCourse(courseKey);
         } catch (Exception e) {
             log.error("调用课程目录服务失败: {}", e.getMessage(), e);
-            throw new BusinessException("无法连接课程目录服务: " + e.getMessage());
+            throw new ServiceUnavailableException("无法连接课程目录服务: " + e.getMessage(), e);
         }
         
-        if (courseResponse == null || courseResponse.getData() == null) {
+        if (course == null) {
             throw new ResourceNotFoundException("Course", courseId);
         }
         
-        CourseDto course = courseResponse.getData();
-        log.debug("课程信息获取成功: {} - {}", course.getCourseId(), course.getName());
+        log.debug("课程信息获取成功: {} - {}", course.getCode(), course.getTitle());
         
-        // 3. 检查课程容量
-        if (course.getEnrolled() >= course.getCapacity()) {
-            throw new BusinessException("Course is full");
-        }
-        
-        // 4. 检查重复选课
+        // 3. 检查重复选课（课程是否已满只由席位预占判定，缓存中的已选人数可能已过期）
         if (enrollmentRepository.existsByCourseIdAndStudentId(courseId, studentId)) {
             throw new BusinessException("Already enrolled in this course");
         }
         
-        // 5. 创建选课记录
+        // 4. 检查课表冲突（本地索引，不访问 catalog-service；事务回滚时自动释放占用的时段）
+        String conflict = studentScheduleIndex.claim(studentId, courseId, course);
+        if (conflict != null) {
+            throw new BusinessException("Schedule conflict with course " + conflict);
+        }
+        
+        // 5. 原子预占课程席位（由 catalog-service 条件更新保证不超卖），事务回滚时经发件箱归还
+        reserveSeat(courseId);
+        seatReleasePublisher.releaseOnRollback(List.of(courseId));
+        
+        // 6. 创建选课记录
         Enrollment enrollment = new Enrollment();
         enrollment.setCourseId(courseId);
         enrollment.setStudentId(studentId);
         enrollment.setStatus(EnrollmentStatus.ACTIVE);
         enrollment.setEnrolledAt(LocalDateTime.now());
         
-        Enrollment saved = enrollmentRepository.save(enrollment);
+        Enrollment saved = enrollmentRepository.saveAndFlush(enrollment);
         log.info("选课成功 - enrollmentId: {}, courseId: {}, studentId: {}", 
                 saved.getId(), courseId, studentId);
         
@@ -113,156 +154,213 @@ public class EnrollmentService {
     }
 
     /**
-     * 学生退课
+     * 批量选课（购物车式选课）
+     * 学生只校验一次，课程信息一次批量获取，席位一次批量预占，选课记录批量写入；
+     * 每门课程独立给出结果，部分课程失败不影响其他课程
      */
     @Transactional
-    public void unenroll(String id) {
-        log.info("开始退课流程 - enrollmentId: {}", id);
+    public BulkEnrollmentResult bulkEnroll(String studentId, List<String> courseIds) {
+        log.debug("开始批量选课流程 - studentId: {}, courseIds: {}", studentId, courseIds);
         
-        Enrollment enrollment = findById(id);
-        
-        // 检查选课记录状态
-        if (enrollment.getStatus() != EnrollmentStatus.ACTIVE) {
-            throw new BusinessException("该选课记录状态不是活跃状态，无法退课");
+        Set<String> uniqueIds = new LinkedHashSet<>(courseIds);
+        if (uniqueIds.isEmpty()) {
+            throw new BusinessException("courseIds不能为空");
+        }
+        if (uniqueIds.size() > MAX_BULK_SIZE) {
+            throw new BusinessException("单次批量选课课程数量不能超过 " + MAX_BULK_SIZE);
         }
         
-        // 更新选课状态为已退课
-        enrollment.setStatus(EnrollmentStatus.DROPPED);
-        enrollmentRepository.save(enrollment);
-        
-        log.info("退课成功 - enrollmentId: {}, courseId: {}, studentId: {}", 
-                id, enrollment.getCourseId(), enrollment.getStudentId());
-    }
-
-    /**
-     * 根据课程ID查询选课记录
-     */
-    public List<Enrollment> findByCourseId(String courseId) {
-        return enrollmentRepository.findByCourseId(courseId);
-    }
-
-    /**
-     * 根据学生ID查询选课记录
-     */
-    public List<Enrollment> findByStudentId(String studentId) {
-        // 验证学生是否存在
+        // 1. 验证学生是否存在（只查询一次）
         studentRepository.findByStudentId(studentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Student", "studentId: " + studentId));
-        
-        return enrollmentRepository.findByStudentId(studentId);
-    }
-    
-    /**
-     * 根据课程ID和状态查询选课记录
-     */
-    public List<Enrollment> findByCourseIdAndStatus(String courseId, EnrollmentStatus status) {
-        return enrollmentRepository.findByCourseIdAndStatus(courseId, status);
-    }
-    
-    /**
-     * 根据学生ID和状态查询选课记录
-     */
-    public List<Enrollment> findByStudentIdAndStatus(String studentId, EnrollmentStatus status) {
-        return enrollmentRepository.findByStudentIdAndStatus(studentId, status);
-    }
-}
-
-
-    /**
-     * 查询所有选课记录
-     */
-    public List<Enrollment> findAll() {
-        return enrollmentRepository.findAll();
-    }
-
-    /**
-     * 根据ID查询选课记录
-     */
-    public Enrollment findById(String id) {
-        return enrollmentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Enrollment", id));
-    }
-
-    /**
-     * 学生选课
-     * 通过服务发现调用课程目录服务验证课程存在性
-     */
-    @Transactional
-    @SuppressWarnings("unchecked")
-    public Enrollment enroll(String courseId, String studentId) {
-        // 1. 验证学生是否存在
-        Student student = studentRepository.findByStudentId(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student", studentId));
         
-        // 2. 调用课程目录服务验证课程是否存在(使用服务名)
-        String url = CATALOG_SERVICE_NAME + "/api/courses/" + courseId;
-        Map<String, Object> courseResponse;
+        // 2. 批量获取课程信息（缓存未命中的课程合并为一次回源）
+        Map<String, CourseDto> courses;
         try {
-            courseResponse = restTemplate.getForObject(url, Map.class);
-        } catch (HttpClientErrorException.NotFound e) {
-            throw new ResourceNotFoundException("Course", courseId);
+            courses = courseCache.getCourses(uniqueIds);
         } catch (Exception e) {
-            throw new BusinessException("无法连接课程目录服务: " + e.getMessage());
+            log.error("调用课程目录服务失败: {}", e.getMessage(), e);
+            throw new ServiceUnavailableException("无法连接课程目录服务: " + e.getMessage(), e);
         }
         
-        if (courseResponse == null) {
-            throw new ResourceNotFoundException("Course", courseId);
+        // 3. 一次查询学生在这些课程中已有的选课记录
+        Map<String, Enrollment> existing = new HashMap<>();
+        for (Enrollment enrollment : enrollmentRepository.findByStudentIdAndCourseIdIn(studentId, uniqueIds)) {
+            existing.put(enrollment.getCourseId(), enrollment);
         }
         
-        // 3. 从响应中提取课程信息
-        Map<String, Object> courseData = (Map<String, Object>) courseResponse.get("data");
-        if (courseData == null) {
-            throw new ResourceNotFoundException("Course", courseId);
+        Map<String, BulkEnrollmentResult.Item> items = new LinkedHashMap<>();
+        List<String> candidates = new ArrayList<>();
+        for (String courseId : uniqueIds) {
+            CourseDto course = courses.get(courseId);
+            Enrollment current = existing.get(courseId);
+            if (course == null) {
+                items.put(courseId, failedItem(courseId, BulkEnrollmentResult.ItemStatus.COURSE_NOT_FOUND,
+                        "课程不存在"));
+            } else if (current != null) {
+                items.put(courseId, failedItem(courseId, BulkEnrollmentResult.ItemStatus.ALREADY_ENROLLED,
+                        "已存在选课记录（" + current.getStatus().getDescription() + "）"));
+            } else {
+                // 依次占用时段，同时检查与已选课程以及本批次内其他课程的冲突
+                String conflict = studentScheduleIndex.claim(studentId, courseId, course);
+                if (conflict != null) {
+                    items.put(courseId, failedItem(courseId, BulkEnrollmentResult.ItemStatus.SCHEDULE_CONFLICT,
+                            "与课程 " + conflict + " 上课时间冲突"));
+                } else {
+                    items.put(courseId, null);
+                    candidates.add(courseId);
+                }
+            }
         }
         
-        Integer capacity = (Integer) courseData.get("capacity");
-        Integer enrolled = (Integer) courseData.get("enrolled");
-        
-        // 4. 检查课程容量
-        if (enrolled >= capacity) {
-            throw new BusinessException("Course is full");
+        // 4. 批量原子预占席位（一次调用，每门课程由 catalog-service 独立判定，结果与请求顺序一致）
+        List<String> reserved = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            List<SeatReservationDto> reservations = reserveSeats(candidates);
+            for (int k = 0; k < candidates.size(); k++) {
+                String courseId = candidates.get(k);
+                SeatReservationDto reservation = k < reservations.size() ? reservations.get(k) : null;
+                if (reservation != null && reservation.isSuccess()) {
+                    reserved.add(courseId);
+                    continue;
+                }
+                studentScheduleIndex.release(studentId, courseId);
+                items.put(courseId, reservation != null && reservation.getRemaining() == null
+                        ? failedItem(courseId, BulkEnrollmentResult.ItemStatus.COURSE_NOT_FOUND, "课程不存在")
+                        : failedItem(courseId, BulkEnrollmentResult.ItemStatus.COURSE_FULL, "Course is full"));
+            }
         }
         
-        // 5. 检查重复选课
-        if (enrollmentRepository.existsByCourseIdAndStudentId(courseId, studentId)) {
-            throw new BusinessException("Already enrolled in this course");
+        // 5. 批量写入选课记录（JDBC batch），事务回滚时经发件箱归还本次预占的全部席位
+        seatReleasePublisher.releaseOnRollback(reserved);
+        List<Enrollment> toSave = new ArrayList<>(reserved.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (String courseId : reserved) {
+            Enrollment enrollment = new Enrollment(courseId, studentId);
+            enrollment.setEnrolledAt(now);
+            toSave.add(enrollment);
+        }
+        if (!toSave.isEmpty()) {
+            enrollmentRepository.saveAll(toSave);
+            enrollmentRepository.flush();
+        }
+        for (Enrollment saved : toSave) {
+            items.put(saved.getCourseId(), new BulkEnrollmentResult.Item(saved.getCourseId(),
+                    BulkEnrollmentResult.ItemStatus.ENROLLED, "选课成功", saved));
         }
         
-        // 6. 创建选课记录
-        Enrollment enrollment = new Enrollment();
-        enrollment.setCourseId(courseId);
-        enrollment.setStudentId(studentId);
-        enrollment.setStatus(EnrollmentStatus.ACTIVE);
-        enrollment.setEnrolledAt(LocalDateTime.now());
-        
-        Enrollment saved = enrollmentRepository.save(enrollment);
-        
-        // 7. 更新课程的已选人数（调用catalog-service）
-        updateCourseEnrolledCount(courseId, enrolled + 1);
-        
-        return saved;
+        List<BulkEnrollmentResult.Item> results = new ArrayList<>(items.values());
+        int succeeded = toSave.size();
+        log.info("批量选课完成 - studentId: {}, succeeded: {}, failed: {}",
+                studentId, succeeded, results.size() - succeeded);
+        return new BulkEnrollmentResult(studentId, succeeded, results.size() - succeeded, results);
     }
-    
+
     /**
-     * 更新课程的已选人数
+     * 批量处理多个学生的单门课程选课请求（异步选课流水线的一批）
+     * 与 bulkEnroll 相同：学生、课程、已有记录各一次批量查询，席位一次批量预占，选课记录一次批量写入。
+     * 选课记录以请求的 requestId 作为 ID 写入
+     * @return 与请求顺序一致的结果
      */
-    private void updateCourseEnrolledCount(String courseId, int newCount) {
-        String url = CATALOG_SERVICE_NAME + "/api/courses/" + courseId;
-        Map<String, Object> updateData = Map.of("enrolled", newCount);
+    @Transactional
+    public List<BulkEnrollmentResult.Item> enrollBatch(List<EnrollmentRequest> requests) {
+        Set<String> studentIds = new LinkedHashSet<>();
+        Set<String> courseIds = new LinkedHashSet<>();
+        for (EnrollmentRequest request : requests) {
+            studentIds.add(request.getStudentId());
+            courseIds.add(request.getCourseId());
+        }
+        
+        // 1. 批量校验学生、获取课程信息、查询已有选课记录
+        Set<String> knownStudents = new HashSet<>();
+        for (Student student : studentRepository.findByStudentIdIn(studentIds)) {
+            knownStudents.add(student.getStudentId());
+        }
+        Map<String, CourseDto> courses;
         try {
-            restTemplate.put(url, updateData);
+            courses = courseCache.getCourses(courseIds);
         } catch (Exception e) {
-            // 记录日志但不影响主流程
-            System.err.println("Failed to update course enrolled count: " + e.getMessage());
+            log.error("调用课程目录服务失败: {}", e.getMessage(), e);
+            throw new ServiceUnavailableException("无法连接课程目录服务: " + e.getMessage(), e);
         }
+        Set<String> enrolledPairs = new HashSet<>();
+        for (Enrollment enrollment : enrollmentRepository.findByStudentIdInAndCourseIdIn(studentIds, courseIds)) {
+            enrolledPairs.add(enrollment.getStudentId() + "|" + enrollment.getCourseId());
+        }
+        
+        // 2. 逐条校验（同一批次内重复的学生-课程组合只受理第一条）
+        BulkEnrollmentResult.Item[] items = new BulkEnrollmentResult.Item[requests.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            EnrollmentRequest request = requests.get(i);
+            String courseId = request.getCourseId();
+            CourseDto course = courses.get(courseId);
+            if (!knownStudents.contains(request.getStudentId())) {
+                items[i] = failedItem(courseId, BulkEnrollmentResult.ItemStatus.STUDENT_NOT_FOUND, "学生不存在");
+            } else if (course == null) {
+                items[i] = failedItem(courseId, BulkEnrollmentResult.ItemStatus.COURSE_NOT_FOUND, "课程不存在");
+            } else if (!enrolledPairs.add(request.getStudentId() + "|" + courseId)) {
+                items[i] = failedItem(courseId, BulkEnrollmentResult.ItemStatus.ALREADY_ENROLLED,
+                        "Already enrolled in this course");
+            } else {
+                String conflict = studentScheduleIndex.claim(request.getStudentId(), courseId, course);
+                if (conflict != null) {
+                    items[i] = failedItem(courseId, BulkEnrollmentResult.ItemStatus.SCHEDULE_CONFLICT,
+                            "与课程 " + conflict + " 上课时间冲突");
+                } else {
+                    candidates.add(i);
+                }
+            }
+        }
+        
+        // 3. 一次调用批量预占席位（同一课程出现多次即预占多个席位）
+        List<Integer> reserved = new ArrayList<>();
+        if (!candidates.isEmpty()) {
+            List<String> toReserve = candidates.stream().map(i -> requests.get(i).getCourseId()).toList();
+            List<SeatReservationDto> reservations = reserveSeats(toReserve);
+            for (int k = 0; k < candidates.size(); k++) {
+                int i = candidates.get(k);
+                EnrollmentRequest request = requests.get(i);
+                SeatReservationDto reservation = k < reservations.size() ? reservations.get(k) : null;
+                if (reservation != null && reservation.isSuccess()) {
+                    reserved.add(i);
+                    continue;
+                }
+                studentScheduleIndex.release(request.getStudentId(), request.getCourseId());
+                items[i] = reservation != null && reservation.getRemaining() == null
+                        ? failedItem(request.getCourseId(), BulkEnrollmentResult.ItemStatus.COURSE_NOT_FOUND, "课程不存在")
+                        : failedItem(request.getCourseId(), BulkEnrollmentResult.ItemStatus.COURSE_FULL, "Course is full");
+            }
+        }
+        
+        // 4. 批量写入选课记录，事务回滚时经发件箱归还本批预占的全部席位
+        seatReleasePublisher.releaseOnRollback(reserved.stream().map(i -> requests.get(i).getCourseId()).toList());
+        List<Enrollment> toSave = new ArrayList<>(reserved.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i : reserved) {
+            EnrollmentRequest request = requests.get(i);
+            Enrollment enrollment = new Enrollment(request.getCourseId(), request.getStudentId());
+            enrollment.setId(request.getRequestId());
+            enrollment.setEnrolledAt(now);
+            toSave.add(enrollment);
+            items[i] = new BulkEnrollmentResult.Item(request.getCourseId(),
+                    BulkEnrollmentResult.ItemStatus.ENROLLED, "选课成功", enrollment);
+        }
+        if (!toSave.isEmpty()) {
+            enrollmentRepository.saveAll(toSave);
+            enrollmentRepository.flush();
+        }
+        log.info("批量处理选课请求完成 - requests: {}, enrolled: {}", requests.size(), toSave.size());
+        return Arrays.asList(items);
     }
 
     /**
      * 学生退课
      */
     @Transactional
-    @SuppressWarnings("unchecked")
     public void unenroll(String id) {
+        log.debug("开始退课流程 - enrollmentId: {}", id);
+        
         Enrollment enrollment = findById(id);
         
         // 检查选课记录状态
@@ -270,36 +368,73 @@ public class EnrollmentService {
             throw new BusinessException("该选课记录状态不是活跃状态，无法退课");
         }
         
-        String courseId = enrollment.getCourseId();
-        
         // 更新选课状态为已退课
         enrollment.setStatus(EnrollmentStatus.DROPPED);
         enrollmentRepository.save(enrollment);
+        studentScheduleIndex.release(enrollment.getStudentId(), enrollment.getCourseId());
         
-        // 获取当前课程的已选人数并减1
+        // 归还课程席位：与状态变更同一事务写入发件箱，由 SeatReleasePublisher 异步投递
+        seatReleasePublisher.enqueue(enrollment.getCourseId());
+        
+        log.info("退课成功 - enrollmentId: {}, courseId: {}, studentId: {}", 
+                id, enrollment.getCourseId(), enrollment.getStudentId());
+    }
+
+    /**
+     * 调用课程目录服务原子预占席位
+     */
+    private void reserveSeat(String courseId) {
+        ApiResponse<SeatReservationDto> response;
         try {
-            String url = CATALOG_SERVICE_NAME + "/api/courses/" + courseId;
-            Map<String, Object> courseResponse = restTemplate.getForObject(url, Map.class);
-            if (courseResponse != null) {
-                Map<String, Object> courseData = (Map<String, Object>) courseResponse.get("data");
-                if (courseData != null) {
-                    Integer enrolled = (Integer) courseData.get("enrolled");
-                    if (enrolled != null && enrolled > 0) {
-                        updateCourseEnrolledCount(courseId, enrolled - 1);
-                    }
-                }
-            }
+            response = catalogClient.reserveSeat(courseId);
         } catch (Exception e) {
-            // 记录日志但不影响主流程
-            System.err.println("Failed to update course enrolled count: " + e.getMessage());
+            log.error("预占课程席位失败: {}", e.getMessage(), e);
+            throw new ServiceUnavailableException("无法连接课程目录服务: " + e.getMessage(), e);
+        }
+        if (response != null && Integer.valueOf(404).equals(response.getCode())) {
+            throw new ResourceNotFoundException("Course", courseId);
+        }
+        if (response == null || response.getData() == null) {
+            throw new ServiceUnavailableException("预占课程席位失败");
+        }
+        if (!response.getData().isSuccess()) {
+            throw new BusinessException("Course is full");
         }
     }
 
     /**
-     * 根据课程ID查询选课记录
+     * 调用课程目录服务批量预占席位
      */
-    public List<Enrollment> findByCourseId(String courseId) {
-        return enrollmentRepository.findByCourseId(courseId);
+    private List<SeatReservationDto> reserveSeats(List<String> courseIds) {
+        ApiResponse<List<SeatReservationDto>> response;
+        try {
+            response = catalogClient.reserveSeats(courseIds);
+        } catch (Exception e) {
+            log.error("批量预占课程席位失败: {}", e.getMessage(), e);
+            throw new ServiceUnavailableException("无法连接课程目录服务: " + e.getMessage(), e);
+        }
+        if (response == null || response.getData() == null) {
+            throw new ServiceUnavailableException("批量预占课程席位失败");
+        }
+        return response.getData();
+    }
+
+    private static BulkEnrollmentResult.Item failedItem(String courseId, BulkEnrollmentResult.ItemStatus status,
+                                                        String message) {
+        return new BulkEnrollmentResult.Item(courseId, status, message, null);
+    }
+
+    /**
+     * 游标分页查询某门课程的选课记录，按 ID 升序
+     */
+    public CursorPage<Enrollment> findByCourseId(String courseId, String cursor, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        String afterId = decodeCursor(cursor);
+        List<Enrollment> fetched = afterId == null
+                ? enrollmentRepository.findByCourseIdOrderByIdAsc(courseId, Limit.of(size + 1))
+                : enrollmentRepository.findByCourseIdAndIdGreaterThanOrderByIdAsc(
+                        courseId, afterId, Limit.of(size + 1));
+        return CursorPage.of(fetched, size, Enrollment::getId);
     }
 
     /**
@@ -326,4 +461,12 @@ public class EnrollmentService {
     public List<Enrollment> findByStudentIdAndStatus(String studentId, EnrollmentStatus status) {
         return enrollmentRepository.findByStudentIdAndStatus(studentId, status);
     }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标: " + cursor);
+        }
+    }
 }
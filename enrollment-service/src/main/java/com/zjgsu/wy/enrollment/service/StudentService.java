@@ -1,5 +1,6 @@
 package com.zjgsu.wy.enrollment.service;
 
+import com.zjgsu.wy.enrollment.common.CursorPage;
 import com.zjgsu.wy.enrollment.exception.BusinessException;
 import com.zjgsu.wy.enrollment.exception.ResourceNotFoundException;
 import com.zjgsu.wy.enrollment.model.EnrollmentStatus;
@@ -7,6 +8,7 @@ import com.zjgsu.wy.enrollment.model.Student;
 import com.zjgsu.wy.enrollment.repository.EnrollmentRepository;
 import com.zjgsu.wy.enrollment.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,10 +28,18 @@ public class StudentService {
     private EnrollmentRepository enrollmentRepository;
 
     /**
-     * 查询所有学生
+     * 游标分页查询学生，按 ID 升序
+     * @param cursor 上一页返回的 nextCursor，为空表示第一页
+     * @param limit 页大小，超过 CursorPage.MAX_LIMIT 时截断
      */
-    public List<Student> findAll() {
-        return studentRepository.findAll();
+    public CursorPage<Student> findPage(String cursor, Integer limit) {
+        int size = CursorPage.normalizeLimit(limit);
+        String afterId = decodeCursor(cursor);
+        // 多取一条用于判断是否还有下一页
+        List<Student> fetched = afterId == null
+                ? studentRepository.findAllByOrderByIdAsc(Limit.of(size + 1))
+                : studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        return CursorPage.of(fetched, size, Student::getId);
     }
 
     /**
@@ -131,4 +141,12 @@ public class StudentService {
     public List<Student> findByGrade(Integer grade) {
         return studentRepository.findByGrade(grade);
     }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return CursorPage.decodeCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("无效的分页游标: " + cursor);
+        }
+    }
 }
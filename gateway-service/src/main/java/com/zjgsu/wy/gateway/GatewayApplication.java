@@ -1,7 +1,11 @@
 package com.zjgsu.wy.gateway;
 
+import com.zjgsu.wy.gateway.admission.AdmissionProperties;
+import com.zjgsu.wy.gateway.ratelimit.RateLimitProperties;
+import com.zjgsu.wy.gateway.util.JwtProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 /**
@@ -9,6 +13,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableConfigurationProperties({JwtProperties.class, AdmissionProperties.class, RateLimitProperties.class})
 public class GatewayApplication {
     public static void main(String[] args) {
         SpringApplication.run(GatewayApplication.class, args);
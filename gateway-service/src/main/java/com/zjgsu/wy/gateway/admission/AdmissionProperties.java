@@ -0,0 +1,113 @@
+package com.zjgsu.wy.gateway.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 准入排队配置
+ *
+ * 只对 routes 中列出的路由（按路由 id）启用排队，未列出的路由不受影响。
+ */
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionProperties {
+
+    /**
+     * 是否启用准入排队
+     */
+    private boolean enabled = true;
+
+    /**
+     * 排队号/准入资格在最后一次访问后的保留时间，超时未访问视为放弃排队或会话结束
+     */
+    private Duration ticketTtl = Duration.ofMinutes(10);
+
+    /**
+     * 保存排队号的最大用户数
+     */
+    private long maximumTickets = 500000;
+
+    /**
+     * 按路由 id 配置的准入速率
+     */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTicketTtl() {
+        return ticketTtl;
+    }
+
+    public void setTicketTtl(Duration ticketTtl) {
+        this.ticketTtl = ticketTtl;
+    }
+
+    public long getMaximumTickets() {
+        return maximumTickets;
+    }
+
+    public void setMaximumTickets(long maximumTickets) {
+        this.maximumTickets = maximumTickets;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * 单个路由的准入配置
+     */
+    public static class Route {
+
+        /**
+         * 每秒放行的新用户数（下游可持续吞吐对应的用户数）
+         */
+        private double rate = 100;
+
+        /**
+         * 空闲时可立即放行的用户数
+         */
+        private long burst = 100;
+
+        /**
+         * 最大排队人数，超出后不再发放排队号
+         */
+        private long maxWaiting = 100000;
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public long getBurst() {
+            return burst;
+        }
+
+        public void setBurst(long burst) {
+            this.burst = burst;
+        }
+
+        public long getMaxWaiting() {
+            return maxWaiting;
+        }
+
+        public void setMaxWaiting(long maxWaiting) {
+            this.maxWaiting = maxWaiting;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.zjgsu.wy.gateway.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个路由的虚拟排队队列
+ *
+ * 按到达顺序发放递增的排队号，放行边界（frontier）按配置速率随时间推进，
+ * 排队号小于边界的用户获得准入。空闲时边界最多领先已发号数 burst 个，
+ * 因此平时请求直接放行，只有瞬时涌入超过速率时才需要排队。
+ * 队列本身不保存等待者，只有两个计数器，内存占用与排队人数无关。
+ */
+public class AdmissionQueue {
+
+    private final double admitsPerNano;
+
+    private final long burst;
+
+    private final long maxWaiting;
+
+    /**
+     * 下一个要发放的排队号
+     */
+    private long issued;
+
+    /**
+     * 放行边界，排队号小于该值的用户可进入
+     */
+    private double frontier;
+
+    private long lastAdvanceNanos;
+
+    public AdmissionQueue(AdmissionProperties.Route config, long nowNanos) {
+        this.admitsPerNano = config.getRate() / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(config.getBurst(), 0);
+        this.maxWaiting = config.getMaxWaiting();
+        this.frontier = burst;
+        this.lastAdvanceNanos = nowNanos;
+    }
+
+    /**
+     * 发放排队号
+     * @return 排队号，排队人数已满时返回 -1
+     */
+    public synchronized long issue(long nowNanos) {
+        advance(nowNanos);
+        if (issued - (long) frontier >= maxWaiting) {
+            return -1;
+        }
+        return issued++;
+    }
+
+    /**
+     * 计算排队号当前的位置
+     * @return 0 表示已获准入，否则为前面（含自己）仍在等待的人数
+     */
+    public synchronized long position(long ticket, long nowNanos) {
+        advance(nowNanos);
+        long boundary = (long) frontier;
+        return ticket < boundary ? 0 : ticket - boundary + 1;
+    }
+
+    /**
+     * 当前等待人数
+     */
+    public synchronized long waiting(long nowNanos) {
+        advance(nowNanos);
+        return Math.max(issued - (long) frontier, 0);
+    }
+
+    /**
+     * 按当前速率估算放行指定人数所需的秒数
+     */
+    public long etaSeconds(long position) {
+        if (position <= 0) {
+            return 0;
+        }
+        double seconds = position / (admitsPerNano * TimeUnit.SECONDS.toNanos(1));
+        return (long) Math.ceil(seconds);
+    }
+
+    private void advance(long nowNanos) {
+        long elapsed = nowNanos - lastAdvanceNanos;
+        if (elapsed > 0) {
+            frontier = Math.min(frontier + elapsed * admitsPerNano, (double) issued + burst);
+            lastAdvanceNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.zjgsu.wy.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zjgsu.wy.gateway.admission.AdmissionProperties;
+import com.zjgsu.wy.gateway.admission.AdmissionQueue;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 准入排队过滤器（虚拟等候室）
+ *
+ * 选课开放时大量用户同时涌入，按路由配置的速率分批放行：每个用户首次访问时领取排队号，
+ * 排队号进入放行边界后获得准入，在 ticket-ttl 内持续访问可一直通行；
+ * 未获准入的请求直接返回 503，并携带排队位置、预计等待时间和 Retry-After，
+ * 下游服务只承受其可持续的吞吐量。
+ */
+@Component
+@Slf4j
+public class AdmissionControlFilter implements GlobalFilter, Ordered {
+
+    /**
+     * 等待中客户端的最长重试间隔（秒），避免预计时间很长时客户端长时间不刷新位置
+     */
+    private static final long MAX_RETRY_AFTER_SECONDS = 30;
+
+    private final AdmissionProperties properties;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, AdmissionQueue> queues = new HashMap<>();
+
+    private final Cache<String, Ticket> tickets;
+
+    public AdmissionControlFilter(AdmissionProperties properties,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.tickets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumTickets())
+                .expireAfterAccess(properties.getTicketTtl())
+                .build();
+
+        long now = System.nanoTime();
+        properties.getRoutes().forEach((routeId, config) -> {
+            if (config.getRate() <= 0) {
+                throw new IllegalArgumentException("gateway.admission.routes." + routeId + ".rate 必须大于 0");
+            }
+            AdmissionQueue queue = new AdmissionQueue(config, now);
+            queues.put(routeId, queue);
+            Gauge.builder("gateway.admission.waiting", queue, q -> q.waiting(System.nanoTime()))
+                    .tag("route", routeId)
+                    .description("准入队列中等待的用户数")
+                    .register(meterRegistry);
+            log.info("Admission queue enabled for route {}: rate={}/s, burst={}, maxWaiting={}",
+                    routeId, config.getRate(), config.getBurst(), config.getMaxWaiting());
+        });
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        AdmissionQueue queue = route != null ? queues.get(route.getId()) : null;
+        if (queue == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = route.getId() + ":" + ClientKeys.of(exchange.getRequest());
+        long now = System.nanoTime();
+
+        // 1. 首次访问领取排队号（排队人数已满时不发号）
+        Ticket ticket = tickets.get(key, k -> {
+            long number = queue.issue(now);
+            return number < 0 ? null : new Ticket(number);
+        });
+        if (ticket == null) {
+            log.debug("Admission queue full for route {}, rejecting {}", route.getId(), key);
+            return reject(exchange, "当前排队人数已满，请稍后再试", 0, 0, MAX_RETRY_AFTER_SECONDS);
+        }
+
+        // 2. 已获准入的用户直接放行
+        if (ticket.admitted) {
+            return chain.filter(exchange);
+        }
+        long position = queue.position(ticket.number, now);
+        if (position == 0) {
+            ticket.admitted = true;
+            return chain.filter(exchange);
+        }
+
+        // 3. 仍在排队，返回位置和预计等待时间
+        long eta = queue.etaSeconds(position);
+        long retryAfter = Math.max(1, Math.min(eta, MAX_RETRY_AFTER_SECONDS));
+        return reject(exchange, "正在排队，请稍候", position, eta, retryAfter);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String message,
+                              long position, long eta, long retryAfter) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        Map<String, Object> data = new LinkedHashMap<>();
+        if (position > 0) {
+            response.getHeaders().set("X-Queue-Position", String.valueOf(position));
+            data.put("position", position);
+            data.put("etaSeconds", eta);
+        }
+        data.put("retryAfterSeconds", retryAfter);
+        return ErrorResponses.write(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE, message, data);
+    }
+
+    /**
+     * 在 JWT 认证之后执行，以便按用户身份排队
+     */
+    @Override
+    public int getOrder() {
+        return -80;
+    }
+
+    /**
+     * 用户在单个路由上的排队号
+     */
+    private static final class Ticket {
+        private final long number;
+        private volatile boolean admitted;
+
+        Ticket(long number) {
+            this.number = number;
+        }
+    }
+}
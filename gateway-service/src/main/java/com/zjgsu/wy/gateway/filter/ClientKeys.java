@@ -0,0 +1,28 @@
+package com.zjgsu.wy.gateway.filter;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 限流和排队使用的客户端身份
+ */
+final class ClientKeys {
+
+    private ClientKeys() {
+    }
+
+    /**
+     * 已认证用户使用 X-User-Id（由 JwtAuthenticationFilter 写入，会覆盖客户端自带的同名请求头），
+     * 白名单路径等未认证请求使用客户端 IP
+     */
+    static String of(ServerHttpRequest request) {
+        String userId = request.getHeaders().getFirst("X-User-Id");
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return "ip:" + (remote != null && remote.getAddress() != null
+                ? remote.getAddress().getHostAddress() : "unknown");
+    }
+}
@@ -0,0 +1,41 @@
+package com.zjgsu.wy.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 网关过滤器直接返回的错误响应，格式与下游服务的 ApiResponse 一致（code/message/data）
+ */
+final class ErrorResponses {
+
+    private ErrorResponses() {
+    }
+
+    static Mono<Void> write(ServerHttpResponse response, ObjectMapper objectMapper,
+                            HttpStatus status, String message, Object data) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", status.value());
+        body.put("message", message);
+        body.put("data", data);
+
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return response.setComplete();
+        }
+        DataBuffer buffer = response.bufferFactory().wrap(bytes);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
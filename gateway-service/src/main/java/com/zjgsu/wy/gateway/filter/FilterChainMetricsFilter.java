@@ -0,0 +1,110 @@
+package com.zjgsu.wy.gateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关过滤器链耗时（gateway.filter.chain）
+ *
+ * 从第一个全局过滤器开始计时，到请求即将转发给下游（outcome=forwarded）为止，
+ * 包含认证、限流、准入排队和响应缓存查找的开销，不含下游处理时间；
+ * 被过滤器直接应答的请求（401/429/503、缓存命中）在响应完成时记为 outcome=short_circuited。
+ * 包含下游的端到端耗时见 spring.cloud.gateway.requests。
+ */
+@Component
+public class FilterChainMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final String START_ATTR = FilterChainMetricsFilter.class.getName() + ".start";
+
+    private static final String FORWARDED_ATTR = FilterChainMetricsFilter.class.getName() + ".forwarded";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 按路由缓存的计时器：[0] forwarded，[1] short_circuited
+     */
+    private final ConcurrentMap<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public FilterChainMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        exchange.getAttributes().put(START_ATTR, System.nanoTime());
+        return chain.filter(exchange).doFinally(signal -> {
+            if (!exchange.getAttributes().containsKey(FORWARDED_ATTR)) {
+                record(exchange, 1);
+            }
+        });
+    }
+
+    private void record(ServerWebExchange exchange, int outcome) {
+        Long start = exchange.getAttribute(START_ATTR);
+        if (start == null) {
+            return;
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown";
+        timers.computeIfAbsent(routeId, this::createTimers)[outcome]
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] createTimers(String routeId) {
+        return new Timer[]{timer(routeId, "forwarded"), timer(routeId, "short_circuited")};
+    }
+
+    private Timer timer(String routeId, String outcome) {
+        return Timer.builder("gateway.filter.chain")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .description("请求从进入网关过滤器链到转发下游（或被过滤器直接应答）的耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 最先执行，覆盖所有全局过滤器
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * 紧挨在转发之前执行，记录过滤器链到此为止的耗时
+     */
+    @Component
+    public static class ForwardMarker implements GlobalFilter, Ordered {
+
+        private final FilterChainMetricsFilter metrics;
+
+        public ForwardMarker(FilterChainMetricsFilter metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            exchange.getAttributes().put(FORWARDED_ATTR, Boolean.TRUE);
+            metrics.record(exchange, 0);
+            return chain.filter(exchange);
+        }
+
+        @Override
+        public int getOrder() {
+            return NettyRoutingFilter.ORDER - 1;
+        }
+    }
+}
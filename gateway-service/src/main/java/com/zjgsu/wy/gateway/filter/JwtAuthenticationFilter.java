@@ -1,6 +1,7 @@
 package com.zjgsu.wy.gateway.filter;
 
-import com.zjgsu.wy.gateway.util.JwtUtil;
+import com.zjgsu.wy.gateway.security.JwtPrincipal;
+import com.zjgsu.wy.gateway.security.VerifiedTokenCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -26,7 +27,7 @@ import java.util.List;
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     // 白名单路径（不需要认证）
     private static final List<String> WHITE_LIST = Arrays.asList(
@@ -43,16 +44,23 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
         log.debug("Processing request: {} {}", request.getMethod(), path);
 
-        // 1. 白名单路径直接放行
+        // 1. 白名单路径直接放行（移除客户端伪造的用户身份请求头）
         if (isWhiteList(path)) {
             log.debug("White list path, skip authentication: {}", path);
-            return chain.filter(exchange);
+            ServerHttpRequest anonymousRequest = request.mutate()
+                    .headers(headers -> {
+                        headers.remove("X-User-Id");
+                        headers.remove("X-Username");
+                        headers.remove("X-User-Role");
+                    })
+                    .build();
+            return chain.filter(exchange.mutate().request(anonymousRequest).build());
         }
 
         // 2. 获取 Authorization 请求头
         String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.warn("Missing or invalid Authorization header for path: {}", path);
+            log.debug("Missing or invalid Authorization header for path: {}", path);
             response.setStatusCode(HttpStatus.UNAUTHORIZED);
             return response.setComplete();
         }
@@ -60,28 +68,22 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         // 3. 提取 Token
         String token = authHeader.substring(7);
 
-        // 4. 验证 Token
-        if (!jwtUtil.validateToken(token)) {
-            log.warn("Invalid or expired token for path: {}", path);
+        // 4. 验证 Token 并解析用户信息（命中缓存时跳过验签）
+        JwtPrincipal principal = verifiedTokenCache.resolve(token);
+        if (principal == null) {
+            log.debug("Invalid or expired token for path: {}", path);
             response.setStatusCode(HttpStatus.UNAUTHORIZED);
             return response.setComplete();
         }
 
-        // 5. 解析 Token 获取用户信息
-        String userId = jwtUtil.getUserIdFromToken(token);
-        String username = jwtUtil.getUsernameFromToken(token);
-        String role = jwtUtil.getRoleFromToken(token);
+        String userId = principal.getUserId();
+        String username = principal.getUsername();
+        String role = principal.getRole();
 
-        if (userId == null || username == null) {
-            log.warn("Failed to extract user info from token");
-            response.setStatusCode(HttpStatus.UNAUTHORIZED);
-            return response.setComplete();
-        }
-
-        log.info("User authenticated: userId={}, username={}, role={}, path={}", 
+        log.debug("User authenticated: userId={}, username={}, role={}, path={}", 
                 userId, username, role, path);
 
-        // 6. 将用户信息添加到请求头，传递给下游服务
+        // 5. 将用户信息添加到请求头，传递给下游服务
         ServerHttpRequest modifiedRequest = request.mutate()
                 .header("X-User-Id", userId)
                 .header("X-Username", username)
@@ -92,7 +94,7 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
                 .request(modifiedRequest)
                 .build();
 
-        // 7. 转发请求
+        // 6. 转发请求
         return chain.filter(modifiedExchange);
     }
 
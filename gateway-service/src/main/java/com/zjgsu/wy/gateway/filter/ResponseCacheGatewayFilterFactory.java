@@ -0,0 +1,431 @@
+package com.zjgsu.wy.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 网关响应缓存过滤器
+ *
+ * 缓存路由上 GET 请求的 200 响应（按路径和查询串区分），容量有上限，条目按配置的 TTL
+ * 与上游 Cache-Control max-age 中较小者过期，上游声明 no-store/no-cache/private 的响应不缓存。
+ * 同一个键的并发未命中只向上游发一次请求，其余请求等待并复用这次的结果（请求合并）。
+ * 缓存响应携带 ETag，客户端带 If-None-Match 命中时直接返回 304。
+ * 路由上的写请求（POST/PUT/PATCH/DELETE）成功后清空该路由的缓存。
+ *
+ * 内置的 LocalResponseCache 不做请求合并，也不会在写请求后失效，因此没有直接使用。
+ */
+@Component
+@Slf4j
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteResponseCache routeCache = new RouteResponseCache(config);
+        if (config.getRouteId() != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, routeCache.cache, "gateway.response." + config.getRouteId());
+        }
+        // 必须在 NettyWriteResponseFilter 之前执行，才能截获写回客户端的响应体
+        return new OrderedGatewayFilter(routeCache::filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    /**
+     * 单个路由的响应缓存
+     */
+    private static final class RouteResponseCache {
+
+        private final Config config;
+
+        private final Cache<String, CachedResponse> cache;
+
+        private final ConcurrentMap<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+        RouteResponseCache(Config config) {
+            this.config = config;
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(config.getMaximumSize())
+                    .expireAfter(new ResponseExpiry())
+                    .recordStats()
+                    .build();
+        }
+
+        Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+
+            if (isUnsafe(method)) {
+                return chain.filter(exchange).then(Mono.fromRunnable(() -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is2xxSuccessful()) {
+                        log.debug("Write request on cached route, invalidating: {} {}", method, request.getPath());
+                        cache.invalidateAll();
+                    }
+                }));
+            }
+            if (method != HttpMethod.GET || isBypassed(request.getPath().value())) {
+                return chain.filter(exchange);
+            }
+
+            String requestCacheControl = request.getHeaders().getCacheControl();
+            if (requestCacheControl != null && requestCacheControl.contains("no-store")) {
+                return chain.filter(exchange);
+            }
+            boolean skipLookup = requestCacheControl != null && requestCacheControl.contains("no-cache");
+
+            String key = cacheKey(request);
+            if (!skipLookup) {
+                CachedResponse hit = cache.getIfPresent(key);
+                if (hit != null) {
+                    return writeCached(exchange, hit, "HIT");
+                }
+            }
+
+            // 合并并发未命中：第一个请求访问上游，其余请求等待其结果
+            Sinks.One<CachedResponse> sink = Sinks.one();
+            Sinks.One<CachedResponse> leader = inFlight.putIfAbsent(key, sink);
+            if (leader != null) {
+                return leader.asMono()
+                        .timeout(config.getCoalesceTimeout(), Mono.empty())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(result -> result.isPresent()
+                                ? writeCached(exchange, result.get(), "COALESCED")
+                                : chain.filter(exchange));
+            }
+
+            exchange.getResponse().getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), config);
+            return chain.filter(exchange.mutate().response(capturing).build())
+                    .doOnSuccess(ignored -> {
+                        CachedResponse captured = capturing.captured;
+                        if (captured != null) {
+                            cache.put(key, captured);
+                            sink.tryEmitValue(captured);
+                        }
+                    })
+                    .doFinally(signal -> {
+                        inFlight.remove(key, sink);
+                        sink.tryEmitEmpty();
+                    });
+        }
+
+        private boolean isBypassed(String path) {
+            return config.getBypassPaths().stream().anyMatch(path::startsWith);
+        }
+
+        private static boolean isUnsafe(HttpMethod method) {
+            return method == HttpMethod.POST || method == HttpMethod.PUT
+                    || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+        }
+
+        private static String cacheKey(ServerHttpRequest request) {
+            String query = request.getURI().getRawQuery();
+            return query == null ? request.getPath().value() : request.getPath().value() + "?" + query;
+        }
+
+        private static Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+            ServerHttpResponse response = exchange.getResponse();
+            HttpHeaders headers = response.getHeaders();
+            headers.set(CACHE_STATUS_HEADER, cacheStatus);
+            headers.setETag(cached.etag);
+
+            List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+            if (ifNoneMatch.contains(cached.etag) || ifNoneMatch.contains("*")) {
+                response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                return response.setComplete();
+            }
+
+            response.setStatusCode(cached.status);
+            cached.headers.forEach(headers::put);
+            headers.setContentLength(cached.body.length);
+            headers.set(HttpHeaders.AGE, String.valueOf(
+                    Duration.ofNanos(System.nanoTime() - cached.storedAtNanos).toSeconds()));
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body)));
+        }
+    }
+
+    /**
+     * 截获上游响应体：写回客户端的同时生成缓存条目（仅 200 且允许缓存时）
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final Config config;
+
+        private volatile CachedResponse captured;
+
+        CapturingResponse(ServerHttpResponse delegate, Config config) {
+            super(delegate);
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long ttlNanos = cacheableTtlNanos();
+            if (ttlNanos <= 0) {
+                return super.writeWith(body);
+            }
+            long maxBodySize = config.getMaxBodySize().toBytes();
+            if (getDelegate().getHeaders().getContentLength() > maxBodySize) {
+                return super.writeWith(body);
+            }
+            // 逐块累计，超过上限时停止缓冲，已缓冲的部分和剩余数据直接透传，不把大响应整个读入内存
+            AtomicLong size = new AtomicLong();
+            Flux<DataBuffer> source = Flux.from(body);
+            return source
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodySize)
+                    .switchOnFirst((first, chunks) -> {
+                        if (!first.hasValue() || size.get() > maxBodySize) {
+                            return super.writeWith(chunks.flatMapIterable(Function.identity()));
+                        }
+                        // 第一组即完整响应体：未超过上限，生成缓存条目
+                        List<DataBuffer> buffers = first.get();
+                        DataBuffer joined = bufferFactory().join(buffers);
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        HttpHeaders headers = getDelegate().getHeaders();
+                        String etag = headers.getETag();
+                        if (etag == null) {
+                            etag = computeEtag(bytes);
+                            headers.setETag(etag);
+                        }
+                        captured = new CachedResponse(getStatusCode(), cacheableHeaders(headers),
+                                bytes, etag, ttlNanos);
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(p -> p));
+        }
+
+        /**
+         * 根据状态码和上游 Cache-Control 计算缓存时长，不可缓存时返回 0
+         */
+        private long cacheableTtlNanos() {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != HttpStatus.OK.value()) {
+                return 0;
+            }
+            long ttl = config.getTtl().toNanos();
+            String cacheControl = getDelegate().getHeaders().getCacheControl();
+            if (cacheControl != null) {
+                String directives = cacheControl.toLowerCase(Locale.ROOT);
+                if (directives.contains("no-store") || directives.contains("no-cache")
+                        || directives.contains("private")) {
+                    return 0;
+                }
+                Matcher matcher = MAX_AGE.matcher(directives);
+                if (matcher.find()) {
+                    ttl = Math.min(ttl, Duration.ofSeconds(Long.parseLong(matcher.group(1))).toNanos());
+                }
+            }
+            return ttl;
+        }
+
+        /**
+         * 复制可以随缓存重放的响应头：去掉逐跳头、Set-Cookie 和网关自身添加的 CORS 头
+         */
+        private static HttpHeaders cacheableHeaders(HttpHeaders source) {
+            HttpHeaders copy = new HttpHeaders();
+            source.forEach((name, values) -> {
+                String lower = name.toLowerCase(Locale.ROOT);
+                if (lower.startsWith("access-control-") || lower.equals("set-cookie")
+                        || lower.equals("transfer-encoding") || lower.equals("connection")
+                        || lower.equals("content-length") || lower.equals(CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT))) {
+                    return;
+                }
+                copy.put(name, new ArrayList<>(values));
+            });
+            return HttpHeaders.readOnlyHttpHeaders(copy);
+        }
+
+        private static String computeEtag(byte[] body) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+                return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    /**
+     * 缓存的响应
+     */
+    private static final class CachedResponse {
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final String etag;
+        private final long ttlNanos;
+        private final long storedAtNanos;
+
+        CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag, long ttlNanos) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.etag = etag;
+            this.ttlNanos = ttlNanos;
+            this.storedAtNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 每个条目按各自的 TTL 过期
+     */
+    private static final class ResponseExpiry implements Expiry<String, CachedResponse> {
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return value.ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return value.ttlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * 过滤器参数（在路由的 filters 中通过 args 配置）
+     */
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * 最多缓存的响应数
+         */
+        private long maximumSize = 1000;
+
+        /**
+         * 缓存时长上限，上游 max-age 更短时以上游为准
+         */
+        private Duration ttl = Duration.ofSeconds(10);
+
+        /**
+         * 单个响应体大小上限，超过则不缓存
+         */
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        /**
+         * 合并请求等待上游结果的最长时间，超时后自行访问上游
+         */
+        private Duration coalesceTimeout = Duration.ofSeconds(5);
+
+        /**
+         * 不缓存的路径前缀
+         */
+        private List<String> bypassPaths = new ArrayList<>();
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        public Duration getCoalesceTimeout() {
+            return coalesceTimeout;
+        }
+
+        public void setCoalesceTimeout(Duration coalesceTimeout) {
+            this.coalesceTimeout = coalesceTimeout;
+        }
+
+        public List<String> getBypassPaths() {
+            return bypassPaths;
+        }
+
+        public void setBypassPaths(List<String> bypassPaths) {
+            this.bypassPaths = bypassPaths;
+        }
+    }
+}
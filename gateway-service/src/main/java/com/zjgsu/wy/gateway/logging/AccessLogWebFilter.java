@@ -0,0 +1,79 @@
+package com.zjgsu.wy.gateway.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问日志过滤器
+ *
+ * 每个请求完成后向 ACCESS logger 写一行 key=value 记录（方法、路径、路由、状态码、耗时），
+ * 由 logback-spring.xml 中独立的异步队列输出，事件循环线程上只做一次入队。
+ * 5xx 以 WARN 记录，不受 logging.sampling.access 采样影响；响应提交前客户端断开的请求记为 status=cancelled。
+ */
+@Component
+@ConditionalOnProperty(name = "logging.access.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogWebFilter implements WebFilter, Ordered {
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("ACCESS");
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getPath().value().startsWith("/actuator")) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> log(exchange, status(exchange, "200"), start))
+                .doOnError(error -> log(exchange, String.valueOf(error instanceof ResponseStatusException e
+                        ? e.getStatusCode().value() : 500), start))
+                .doOnCancel(() -> log(exchange, status(exchange, "cancelled"), start));
+    }
+
+    /**
+     * 响应已提交时以实际状态码为准（连接在响应写完后关闭也会触发取消信号）
+     */
+    private static String status(ServerWebExchange exchange, String fallback) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status == null || (!exchange.getResponse().isCommitted() && "cancelled".equals(fallback))) {
+            return fallback;
+        }
+        return String.valueOf(status.value());
+    }
+
+    private void log(ServerWebExchange exchange, String status, long start) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "-";
+        ServerHttpRequest request = exchange.getRequest();
+        if (status.startsWith("5")) {
+            ACCESS.warn("method={} path={} route={} status={} ms={}",
+                    request.getMethod(), request.getPath().value(), routeId, status, millis);
+        } else if (ACCESS.isInfoEnabled()) {
+            ACCESS.info("method={} path={} route={} status={} ms={}",
+                    request.getMethod(), request.getPath().value(), routeId, status, millis);
+        }
+    }
+
+    /**
+     * 最外层执行，耗时覆盖整个网关处理过程
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
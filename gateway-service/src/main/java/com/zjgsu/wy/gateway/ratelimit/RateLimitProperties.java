@@ -0,0 +1,101 @@
+package com.zjgsu.wy.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 限流配置
+ *
+ * 按路由 id 配置令牌桶，每个用户（或未认证客户端 IP）在每个路由上各有一个桶；
+ * 未列出的路由不限流。
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 令牌桶空闲多久后回收
+     */
+    private Duration idleTtl = Duration.ofMinutes(5);
+
+    /**
+     * 同时保存的令牌桶上限
+     */
+    private long maximumBuckets = 200000;
+
+    /**
+     * 按路由 id 配置的令牌桶参数
+     */
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getIdleTtl() {
+        return idleTtl;
+    }
+
+    public void setIdleTtl(Duration idleTtl) {
+        this.idleTtl = idleTtl;
+    }
+
+    public long getMaximumBuckets() {
+        return maximumBuckets;
+    }
+
+    public void setMaximumBuckets(long maximumBuckets) {
+        this.maximumBuckets = maximumBuckets;
+    }
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * 单个路由的令牌桶参数
+     */
+    public static class Route {
+
+        /**
+         * 桶容量（允许的突发请求数）
+         */
+        private int capacity = 20;
+
+        /**
+         * 每秒补充的令牌数（持续速率）
+         */
+        private double refillPerSecond = 10;
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.zjgsu.wy.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶
+ *
+ * 采用 GCRA（通用信元速率算法）表示令牌桶：只保存一个"理论到达时间"（TAT），
+ * TAT 与当前时间之差即桶中已消耗的令牌折算成的时间。取令牌就是对 TAT 做一次 CAS，
+ * 无需加锁，也无需后台线程补充令牌。
+ */
+public class TokenBucket {
+
+    /**
+     * 每个令牌对应的时间间隔（纳秒）
+     */
+    private final long intervalNanos;
+
+    /**
+     * 桶满时 TAT 允许领先当前时间的最大值（纳秒）
+     */
+    private final long toleranceNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+        this.toleranceNanos = intervalNanos * Math.max(capacity, 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * 尝试取一个令牌
+     * @return 取令牌结果
+     */
+    public Result tryConsume(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, nowNanos) + intervalNanos;
+            long ahead = newTat - nowNanos;
+            if (ahead > toleranceNanos) {
+                return new Result(false, 0, ahead - toleranceNanos);
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return new Result(true, (toleranceNanos - ahead) / intervalNanos, 0);
+            }
+        }
+    }
+
+    /**
+     * 取令牌结果
+     * @param allowed 是否允许通过
+     * @param remaining 剩余令牌数
+     * @param retryAfterNanos 被拒绝时，下一个令牌可用前需等待的时间
+     */
+    public record Result(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+}
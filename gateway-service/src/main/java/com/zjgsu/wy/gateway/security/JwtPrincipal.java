@@ -0,0 +1,52 @@
+package com.zjgsu.wy.gateway.security;
+
+/**
+ * 已验证 Token 中解析出的用户身份
+ */
+public class JwtPrincipal {
+
+    private final String userId;
+    private final String username;
+    private final String role;
+    private final long expiresAtMillis;
+
+    public JwtPrincipal(String userId, String username, String role, long expiresAtMillis) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Token 过期时间（epoch 毫秒）
+     */
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{" +
+                "userId='" + userId + '\'' +
+                ", username='" + username + '\'' +
+                ", role='" + role + '\'' +
+                ", expiresAtMillis=" + expiresAtMillis +
+                '}';
+    }
+}
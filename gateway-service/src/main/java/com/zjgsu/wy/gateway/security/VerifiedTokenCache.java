@@ -0,0 +1,105 @@
+package com.zjgsu.wy.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zjgsu.wy.gateway.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证 Token 缓存
+ *
+ * 以 Token 的 SHA-256 摘要为键缓存验签结果，条目在 Token 的 exp 时刻过期，
+ * 同一会话的后续请求无需再做 HMAC 验签。缓存中不保存 Token 原文。
+ * 每次解析的耗时（含摘要计算和缓存查找）计入 gateway.jwt.verify 指标，按结果区分 valid/invalid。
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+
+    private final Cache<String, JwtPrincipal> cache;
+
+    private final Timer validTimer;
+
+    private final Timer invalidTimer;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.maximum-size:100000}") long maximumSize) {
+        this.jwtUtil = jwtUtil;
+        this.validTimer = verifyTimer(meterRegistry, "valid");
+        this.invalidTimer = verifyTimer(meterRegistry, "invalid");
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    /**
+     * 获取 Token 对应的用户身份，未命中时验签解析并缓存
+     * @param token JWT Token
+     * @return 用户身份，Token 无效或已过期时返回 null
+     */
+    public JwtPrincipal resolve(String token) {
+        long start = System.nanoTime();
+        String key = digest(token);
+        JwtPrincipal principal = cache.get(key, k -> jwtUtil.parsePrincipal(token));
+        if (principal != null && principal.isExpired(System.currentTimeMillis())) {
+            cache.invalidate(key);
+            principal = null;
+        }
+        (principal != null ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("gateway.jwt.verify")
+                .tag("outcome", outcome)
+                .description("JWT 解析耗时（含已验证 Token 缓存查找）")
+                .register(meterRegistry);
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 条目存活到 Token 的过期时刻
+     */
+    private static class TokenExpiry implements Expiry<String, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+            long remainingMillis = principal.getExpiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
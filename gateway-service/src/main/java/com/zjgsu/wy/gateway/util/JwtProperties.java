@@ -0,0 +1,69 @@
+package com.zjgsu.wy.gateway.util;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT 配置
+ *
+ * jwt.secret 是 kid 为 default 的密钥，兼容未携带 kid 的旧 Token；
+ * 密钥轮换时在 jwt.keys 中新增密钥并把 jwt.active-kid 指向它，
+ * 旧密钥保留到其签发的 Token 全部过期后再移除。
+ */
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+
+    /**
+     * 默认密钥（kid = default）
+     */
+    private String secret;
+
+    /**
+     * Token 有效期（毫秒）
+     */
+    private Long expiration;
+
+    /**
+     * 签发新 Token 使用的密钥 kid
+     */
+    private String activeKid = JwtKeyRing.DEFAULT_KID;
+
+    /**
+     * 额外的密钥，kid -> secret
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public Long getExpiration() {
+        return expiration;
+    }
+
+    public void setExpiration(Long expiration) {
+        this.expiration = expiration;
+    }
+
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    public void setActiveKid(String activeKid) {
+        this.activeKid = activeKid;
+    }
+
+    public Map<String, String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Map<String, String> keys) {
+        this.keys = keys;
+    }
+}
@@ -0,0 +1,95 @@
+package com.zjgsu.wy.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个接口的统计：延迟直方图（微秒，3 位有效数字）和按结果分类的计数
+ *
+ * 延迟从计划发送时刻开始计算，而不是实际发送时刻：压测端或服务端变慢导致请求晚发时，
+ * 等待的时间同样计入延迟，避免协调遗漏（coordinated omission）让分位数偏乐观。
+ */
+public class EndpointStats {
+
+    private final String endpoint;
+
+    private final Histogram latency = new ConcurrentHistogram(3);
+
+    private final LongAdder success = new LongAdder();
+
+    private final LongAdder clientErrors = new LongAdder();
+
+    private final LongAdder serverErrors = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * 记录收到响应的请求
+     */
+    public void record(int status, long latencyNanos) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (status < 400) {
+            success.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    /**
+     * 记录没有收到响应的请求（连接失败、超时）
+     */
+    public void recordFailure(long latencyNanos) {
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        failures.increment();
+    }
+
+    /**
+     * 记录因客户端在途请求达到上限而未发送的到达
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public long getSuccess() {
+        return success.sum();
+    }
+
+    public long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getCompleted() {
+        return getSuccess() + getClientErrors() + getServerErrors() + getFailures();
+    }
+}
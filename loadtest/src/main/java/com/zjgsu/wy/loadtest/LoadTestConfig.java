@@ -0,0 +1,233 @@
+package com.zjgsu.wy.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 压测参数，命令行以 --key=value 形式传入
+ *
+ * <pre>
+ * --project-dir=..          仓库根目录（各服务的 target/*-exec.jar 从这里查找）
+ * --target=URL              已部署环境的网关地址；设置后不启动本地服务
+ * --rate=50                 每秒到达的请求数（开环，不受响应快慢影响）
+ * --warmup=10s              预热时长，不计入结果
+ * --duration=60s            测量时长
+ * --users=100               虚拟学生数（每人一个账号、一条学生记录）
+ * --courses=100             课程数
+ * --capacity=30             每门课程容量
+ * --mix=login:5,browse:30   各操作的权重，未列出的操作保持默认权重
+ * --max-in-flight=2000      客户端同时等待响应的请求上限，超出的到达记为 dropped
+ * --request-timeout=10s     单个请求超时
+ * --java-options=-Xmx512m   启动服务进程的 JVM 参数
+ * --gateway-args=...        额外传给网关的参数（默认关闭按 IP/用户的限流和准入排队）
+ * --service-args=...        额外传给四个服务的参数
+ * --result=target/loadtest-result.json
+ * </pre>
+ */
+public class LoadTestConfig {
+
+    private Path projectDir = Path.of("..");
+    private String target;
+    private int gatewayPort = 18090;
+    private int userPort = 18084;
+    private int catalogPort = 18081;
+    private int enrollmentPort = 18082;
+    private double rate = 50;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private int users = 100;
+    private int courses = 100;
+    private int capacity = 30;
+    private final Map<Operation, Integer> mix = Operation.defaultMix();
+    private int maxInFlight = 2000;
+    private Duration requestTimeout = Duration.ofSeconds(10);
+    private Duration startupTimeout = Duration.ofMinutes(3);
+    private List<String> javaOptions = List.of("-Xmx512m");
+    /**
+     * 压测客户端只有一个 IP，按 IP 的登录限流会把登录请求全部挡掉；准入排队会让选课请求排队等待。
+     * 默认关闭二者以测量服务本身，需要观察限流/排队行为时通过 --gateway-args 覆盖
+     */
+    private List<String> gatewayArgs = List.of(
+            "--gateway.rate-limit.enabled=false",
+            "--gateway.admission.enabled=false");
+    private List<String> serviceArgs = List.of();
+    private Path result = Path.of("target", "loadtest-result.json");
+    private Path logDir = Path.of("target", "loadtest-logs");
+
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            config.set(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        if (config.rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        if (config.users <= 0 || config.courses <= 0) {
+            throw new IllegalArgumentException("users and courses must be positive");
+        }
+        return config;
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "project-dir" -> projectDir = Path.of(value);
+            case "target" -> target = value.isBlank() ? null : value;
+            case "gateway-port" -> gatewayPort = Integer.parseInt(value);
+            case "user-port" -> userPort = Integer.parseInt(value);
+            case "catalog-port" -> catalogPort = Integer.parseInt(value);
+            case "enrollment-port" -> enrollmentPort = Integer.parseInt(value);
+            case "rate" -> rate = Double.parseDouble(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "duration" -> duration = parseDuration(value);
+            case "users" -> users = Integer.parseInt(value);
+            case "courses" -> courses = Integer.parseInt(value);
+            case "capacity" -> capacity = Integer.parseInt(value);
+            case "mix" -> parseMix(value);
+            case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+            case "request-timeout" -> requestTimeout = parseDuration(value);
+            case "startup-timeout" -> startupTimeout = parseDuration(value);
+            case "java-options" -> javaOptions = splitArgs(value);
+            case "gateway-args" -> gatewayArgs = splitArgs(value);
+            case "service-args" -> serviceArgs = splitArgs(value);
+            case "result" -> result = Path.of(value);
+            case "log-dir" -> logDir = Path.of(value);
+            default -> throw new IllegalArgumentException("Unknown option: --" + key);
+        }
+    }
+
+    private void parseMix(String value) {
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix but got: " + part);
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + part);
+            }
+            mix.put(operation, weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("At least one operation needs a positive weight");
+        }
+    }
+
+    /**
+     * 解析 500ms / 30s / 2m 形式的时长，不带单位按秒处理
+     */
+    static Duration parseDuration(String value) {
+        String text = value.trim().toLowerCase(Locale.ROOT);
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        if (text.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        if (text.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+
+    private static List<String> splitArgs(String value) {
+        return new ArrayList<>(Arrays.stream(value.trim().split("\\s+")).filter(s -> !s.isEmpty()).toList());
+    }
+
+    public Path getProjectDir() {
+        return projectDir;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public int getGatewayPort() {
+        return gatewayPort;
+    }
+
+    public int getUserPort() {
+        return userPort;
+    }
+
+    public int getCatalogPort() {
+        return catalogPort;
+    }
+
+    public int getEnrollmentPort() {
+        return enrollmentPort;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getCourses() {
+        return courses;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return new EnumMap<>(mix);
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public Duration getStartupTimeout() {
+        return startupTimeout;
+    }
+
+    public List<String> getJavaOptions() {
+        return javaOptions;
+    }
+
+    public List<String> getGatewayArgs() {
+        return gatewayArgs;
+    }
+
+    public List<String> getServiceArgs() {
+        return serviceArgs;
+    }
+
+    public Path getResult() {
+        return result;
+    }
+
+    public Path getLogDir() {
+        return logDir;
+    }
+}
@@ -0,0 +1,39 @@
+package com.zjgsu.wy.loadtest;
+
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * 端到端压测入口
+ *
+ * 未指定 --target 时在本机启动四个服务（H2 内存库、静态服务发现），否则直接压测已部署的网关。
+ * 流程：准备数据 → 预热 → 按固定速率测量 → 输出表格并写入 JSON 结果。
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        try (ServiceLauncher launcher = new ServiceLauncher(config)) {
+            URI gateway = config.getTarget() == null ? launcher.startAll() : URI.create(config.getTarget());
+            GatewayClient client = new GatewayClient(gateway, config.getRequestTimeout());
+
+            Seeder.Dataset dataset = new Seeder(client, config).seed();
+            OpenLoopDriver driver = new OpenLoopDriver(client, config, dataset);
+
+            if (!config.getWarmup().isZero()) {
+                System.out.printf("Warming up for %s ...%n", config.getWarmup());
+                driver.run(config.getWarmup());
+            }
+            System.out.printf("Measuring %.1f req/s for %s against %s ...%n",
+                    config.getRate(), config.getDuration(), gateway);
+            Map<Operation, EndpointStats> stats = driver.run(config.getDuration());
+
+            LoadTestReport report = new LoadTestReport(config, stats);
+            report.print(System.out);
+            report.write(config.getResult());
+            System.out.printf("%nResult written to %s%n", config.getResult().toAbsolutePath());
+        }
+        // HttpClient 的选择器线程不是守护线程，显式退出
+        System.exit(0);
+    }
+}
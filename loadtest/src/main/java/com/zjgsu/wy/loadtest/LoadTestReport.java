@@ -0,0 +1,123 @@
+package com.zjgsu.wy.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测结果：控制台表格和 JSON 文件（便于不同提交之间对比）
+ */
+public class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestConfig config;
+
+    private final Map<Operation, EndpointStats> stats;
+
+    private final double seconds;
+
+    public LoadTestReport(LoadTestConfig config, Map<Operation, EndpointStats> stats) {
+        this.config = config;
+        this.stats = stats;
+        this.seconds = config.getDuration().toMillis() / 1000d;
+    }
+
+    public void print(PrintStream out) {
+        out.println();
+        out.printf("Open-loop rate %.1f req/s for %.0f s, %d users, %d courses%n",
+                config.getRate(), seconds, config.getUsers(), config.getCourses());
+        out.printf("%-30s %8s %9s %7s %7s %7s %7s %7s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Req/s", "2xx/3xx", "4xx", "5xx", "Failed", "Dropped",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long requests = 0;
+        long ok = 0;
+        long client = 0;
+        long server = 0;
+        long failed = 0;
+        long dropped = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.getCompleted() + endpoint.getDropped() == 0) {
+                continue;
+            }
+            printRow(out, endpoint.getEndpoint(), endpoint.getCompleted(), endpoint.getSuccess(),
+                    endpoint.getClientErrors(), endpoint.getServerErrors(), endpoint.getFailures(),
+                    endpoint.getDropped(), endpoint.getLatency());
+            total.add(endpoint.getLatency());
+            requests += endpoint.getCompleted();
+            ok += endpoint.getSuccess();
+            client += endpoint.getClientErrors();
+            server += endpoint.getServerErrors();
+            failed += endpoint.getFailures();
+            dropped += endpoint.getDropped();
+        }
+        printRow(out, "TOTAL", requests, ok, client, server, failed, dropped, total);
+    }
+
+    private void printRow(PrintStream out, String name, long requests, long ok, long client, long server,
+                          long failed, long dropped, Histogram latency) {
+        out.printf("%-30s %8d %9.1f %7d %7d %7d %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, requests, requests / seconds, ok, client, server, failed, dropped,
+                millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                latency.getTotalCount() == 0 ? 0 : latency.getMaxValue() / 1000d);
+    }
+
+    public void write(Path path) throws IOException {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", config.getRate());
+        settings.put("durationSeconds", seconds);
+        settings.put("warmupSeconds", config.getWarmup().toMillis() / 1000d);
+        settings.put("users", config.getUsers());
+        settings.put("courses", config.getCourses());
+        settings.put("capacity", config.getCapacity());
+        settings.put("mix", config.getMix());
+        settings.put("target", config.getTarget() != null ? config.getTarget() : "local");
+
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram latency = endpoint.getLatency();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint.getEndpoint());
+            row.put("requests", endpoint.getCompleted());
+            row.put("throughput", endpoint.getCompleted() / seconds);
+            row.put("success", endpoint.getSuccess());
+            row.put("clientErrors", endpoint.getClientErrors());
+            row.put("serverErrors", endpoint.getServerErrors());
+            row.put("failures", endpoint.getFailures());
+            row.put("dropped", endpoint.getDropped());
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + percentile, millis(latency, percentile));
+            }
+            percentiles.put("max", latency.getTotalCount() == 0 ? 0 : latency.getMaxValue() / 1000d);
+            row.put("latencyMillis", percentiles);
+            endpoints.add(row);
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("timestamp", Instant.now().toString());
+        document.put("settings", settings);
+        document.put("endpoints", endpoints);
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), document);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getTotalCount() == 0 ? 0 : latency.getValueAtPercentile(percentile) / 1000d;
+    }
+}
@@ -0,0 +1,184 @@
+package com.zjgsu.wy.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开环负载驱动
+ *
+ * 请求按固定间隔到达（rate 个/秒），到达时刻只由计划决定，与之前的请求是否完成无关；
+ * 每次到达按权重随机选择操作和虚拟学生后异步发送。系统变慢时在途请求会堆积，
+ * 而不是像闭环压测那样自动降低发送速率。
+ */
+public class OpenLoopDriver {
+
+    private final GatewayClient client;
+
+    private final LoadTestConfig config;
+
+    private final List<VirtualUser> users;
+
+    private final List<String> courseIds;
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenLoopDriver(GatewayClient client, LoadTestConfig config, Seeder.Dataset dataset) {
+        this.client = client;
+        this.config = config;
+        this.users = dataset.users();
+        this.courseIds = dataset.courseIds();
+
+        Map<Operation, Integer> mix = config.getMix();
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * 按配置速率施加负载
+     * @param duration 持续时间
+     * @return 各操作的统计
+     */
+    public Map<Operation, EndpointStats> run(Duration duration) {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.getEndpoint()));
+        }
+        double intervalNanos = 1_000_000_000d / config.getRate();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatch(intended, stats);
+        }
+        awaitInFlight();
+        return stats;
+    }
+
+    private void dispatch(long intended, Map<Operation, EndpointStats> stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = pick(random);
+        VirtualUser user = users.get(random.nextInt(users.size()));
+        String enrollmentId = null;
+        if (operation == Operation.DROP) {
+            enrollmentId = user.pollEnrollment();
+            if (enrollmentId == null) {
+                // 该学生还没有可退的课，改为选课
+                operation = Operation.ENROLL;
+            }
+        }
+
+        EndpointStats endpoint = stats.get(operation);
+        if (inFlight.get() >= config.getMaxInFlight()) {
+            endpoint.recordDropped();
+            return;
+        }
+        inFlight.incrementAndGet();
+        Operation sent = operation;
+        String dropped = enrollmentId;
+        send(operation, user, enrollmentId, random).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - intended;
+            inFlight.decrementAndGet();
+            if (error != null) {
+                endpoint.recordFailure(latency);
+                if (dropped != null) {
+                    user.addEnrollment(dropped);
+                }
+                return;
+            }
+            endpoint.record(response.statusCode(), latency);
+            onResponse(sent, user, dropped, response);
+        });
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> send(Operation operation, VirtualUser user, String enrollmentId,
+                                                         ThreadLocalRandom random) {
+        String token = user.getToken();
+        try {
+            return switch (operation) {
+                case LOGIN -> client.send("POST", "/api/auth/login", null,
+                        Map.of("username", user.getUsername(), "password", user.getPassword()));
+                case BROWSE -> client.send("GET", "/api/courses", token, null);
+                case SEARCH -> client.send("GET", "/api/courses/search?q="
+                        + URLEncoder.encode(Seeder.SUBJECTS[random.nextInt(Seeder.SUBJECTS.length)],
+                        StandardCharsets.UTF_8), token, null);
+                case DETAIL -> client.send("GET", "/api/courses/" + randomCourse(random), token, null);
+                case ENROLL -> client.send("POST", "/api/enrollments", token,
+                        Map.of("courseId", randomCourse(random), "studentId", user.getStudentId()));
+                case DROP -> client.send("DELETE", "/api/enrollments/" + enrollmentId, token, null);
+            };
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void onResponse(Operation operation, VirtualUser user, String enrollmentId,
+                            HttpResponse<byte[]> response) {
+        int status = response.statusCode();
+        switch (operation) {
+            case LOGIN -> {
+                if (status == 200) {
+                    user.setToken(client.json(response).path("token").asText());
+                }
+            }
+            case ENROLL -> {
+                if (status == 201) {
+                    user.addEnrollment(client.json(response).path("data").path("id").asText());
+                }
+            }
+            case DROP -> {
+                // 服务端出错时选课记录仍然有效，放回去稍后再退
+                if (status >= 500) {
+                    user.addEnrollment(enrollmentId);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String randomCourse(ThreadLocalRandom random) {
+        return courseIds.get(random.nextInt(courseIds.size()));
+    }
+
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + config.getRequestTimeout().plusSeconds(1).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(10_000_000L);
+        }
+    }
+}
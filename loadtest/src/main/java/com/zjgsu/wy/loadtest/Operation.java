@@ -0,0 +1,38 @@
+package com.zjgsu.wy.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 选课日的用户操作，endpoint 为结果中的接口名（路径参数以占位符表示，避免每个 ID 一行）
+ */
+public enum Operation {
+
+    LOGIN("POST /api/auth/login", 5),
+    BROWSE("GET /api/courses", 30),
+    SEARCH("GET /api/courses/search", 15),
+    DETAIL("GET /api/courses/{id}", 25),
+    ENROLL("POST /api/enrollments", 18),
+    DROP("DELETE /api/enrollments/{id}", 7);
+
+    private final String endpoint;
+
+    private final int defaultWeight;
+
+    Operation(String endpoint, int defaultWeight) {
+        this.endpoint = endpoint;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation operation : values()) {
+            mix.put(operation, operation.defaultWeight);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,154 @@
+package com.zjgsu.wy.loadtest;
+
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * 准备压测数据：注册并登录虚拟学生、创建学生记录和课程
+ *
+ * 所有请求都经过网关。账号、学号和课程代码带本次运行的唯一前缀，
+ * 对同一个已部署环境重复运行时不会与上次的数据冲突。
+ */
+public class Seeder {
+
+    static final String[] SUBJECTS = {
+            "数据结构", "操作系统", "计算机网络", "数据库系统", "软件工程",
+            "分布式系统", "机器学习", "编译原理", "算法设计", "云计算"
+    };
+
+    private static final String[] DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"};
+
+    private static final String[][] PERIODS = {
+            {"08:00", "09:40"}, {"10:00", "11:40"}, {"13:30", "15:10"}, {"15:30", "17:10"}, {"18:30", "20:10"}
+    };
+
+    private static final String PASSWORD = "LoadTest#2024";
+
+    /**
+     * 准备数据时的并发请求数（注册和登录要做 BCrypt 哈希，并发过高只会在 user-service 排队）
+     */
+    private static final int PARALLELISM = 8;
+
+    private final GatewayClient client;
+
+    private final LoadTestConfig config;
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    public Seeder(GatewayClient client, LoadTestConfig config) {
+        this.client = client;
+        this.config = config;
+    }
+
+    public Dataset seed() {
+        List<VirtualUser> users = new ArrayList<>(config.getUsers());
+        for (int i = 0; i < config.getUsers(); i++) {
+            users.add(new VirtualUser("lt-" + runId + "-" + i, PASSWORD, "LT" + runId + i));
+        }
+
+        System.out.printf("Registering %d users ...%n", users.size());
+        runAll(users.size(), i -> register(users.get(i)).thenCompose(ignored -> login(users.get(i))));
+
+        String token = users.get(0).getToken();
+        System.out.printf("Creating %d students ...%n", users.size());
+        runAll(users.size(), i -> createStudent(users.get(i), token));
+
+        System.out.printf("Creating %d courses ...%n", config.getCourses());
+        List<String> courseIds = Collections.synchronizedList(new ArrayList<>());
+        runAll(config.getCourses(), i -> createCourse(i, token).thenAccept(courseIds::add));
+
+        return new Dataset(List.copyOf(users), List.copyOf(courseIds));
+    }
+
+    private CompletableFuture<Void> register(VirtualUser user) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("username", user.getUsername());
+        body.put("password", user.getPassword());
+        body.put("email", user.getUsername() + "@loadtest.local");
+        body.put("realName", user.getUsername());
+        return client.send("POST", "/api/auth/register", null, body)
+                .thenAccept(response -> expectSuccess(response, "register " + user.getUsername()));
+    }
+
+    CompletableFuture<Void> login(VirtualUser user) {
+        Map<String, Object> body = Map.of("username", user.getUsername(), "password", user.getPassword());
+        return client.send("POST", "/api/auth/login", null, body).thenAccept(response -> {
+            expectSuccess(response, "login " + user.getUsername());
+            user.setToken(client.json(response).path("token").asText());
+        });
+    }
+
+    private CompletableFuture<Void> createStudent(VirtualUser user, String token) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("studentId", user.getStudentId());
+        body.put("name", user.getUsername());
+        body.put("major", "计算机科学与技术");
+        body.put("grade", 2024);
+        body.put("email", user.getStudentId().toLowerCase(Locale.ROOT) + "@loadtest.local");
+        return client.send("POST", "/api/students", token, body)
+                .thenAccept(response -> expectSuccess(response, "create student " + user.getStudentId()));
+    }
+
+    private CompletableFuture<String> createCourse(int index, String token) {
+        String[] period = PERIODS[(index / DAYS.length) % PERIODS.length];
+        Map<String, Object> instructor = Map.of(
+                "id", "T" + (index % 40),
+                "name", "教师" + (index % 40),
+                "email", "t" + (index % 40) + "@loadtest.local");
+        Map<String, Object> schedule = Map.of(
+                "dayOfWeek", DAYS[index % DAYS.length],
+                "startTime", period[0],
+                "endTime", period[1],
+                "expectedAttendance", config.getCapacity());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", "LT-" + runId + "-" + index);
+        body.put("title", SUBJECTS[index % SUBJECTS.length] + " " + (index / SUBJECTS.length + 1) + "班");
+        body.put("instructor", instructor);
+        body.put("schedule", schedule);
+        body.put("capacity", config.getCapacity());
+        return client.send("POST", "/api/courses", token, body).thenApply(response -> {
+            expectSuccess(response, "create course " + index);
+            return client.json(response).path("data").path("id").asText();
+        });
+    }
+
+    private static void runAll(int count, IntFunction<CompletableFuture<?>> task) {
+        Semaphore permits = new Semaphore(PARALLELISM);
+        List<CompletableFuture<?>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            permits.acquireUninterruptibly();
+            futures.add(task.apply(i).whenComplete((result, error) -> permits.release()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private static void expectSuccess(HttpResponse<byte[]> response, String action) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed to " + action + ": HTTP " + response.statusCode()
+                    + " " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 准备好的压测数据
+     */
+    public record Dataset(List<VirtualUser> users, List<String> courseIds) {
+
+        public Dataset {
+            for (String courseId : courseIds) {
+                if (courseId == null || courseId.isEmpty()) {
+                    throw new IllegalStateException("Course creation returned no id");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.zjgsu.wy.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以本地进程启动四个服务
+ *
+ * 每个服务使用各自的 H2 内存库（MySQL 兼容模式），Nacos 注册和配置中心全部关闭，
+ * 服务间调用通过 Spring Cloud 的 SimpleDiscoveryClient 按静态地址发现。
+ * 服务以 prod profile 运行，日志级别与生产一致；输出写入 log-dir 下的 服务名.log。
+ */
+public class ServiceLauncher implements AutoCloseable {
+
+    private static final String USER = "user-service";
+    private static final String CATALOG = "catalog-service";
+    private static final String ENROLLMENT = "enrollment-service";
+    private static final String GATEWAY = "gateway-service";
+
+    private final LoadTestConfig config;
+
+    private final Map<String, Integer> ports = new LinkedHashMap<>();
+
+    private final Map<String, Process> processes = new LinkedHashMap<>();
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    public ServiceLauncher(LoadTestConfig config) {
+        this.config = config;
+        ports.put(USER, config.getUserPort());
+        ports.put(CATALOG, config.getCatalogPort());
+        ports.put(ENROLLMENT, config.getEnrollmentPort());
+        ports.put(GATEWAY, config.getGatewayPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "loadtest-service-shutdown"));
+    }
+
+    /**
+     * 启动全部服务并等待健康检查通过
+     * @return 网关地址
+     */
+    public URI startAll() throws IOException, InterruptedException {
+        Files.createDirectories(config.getLogDir());
+        for (String service : ports.keySet()) {
+            start(service);
+        }
+        long deadline = System.nanoTime() + config.getStartupTimeout().toNanos();
+        for (Map.Entry<String, Integer> entry : ports.entrySet()) {
+            awaitHealthy(entry.getKey(), entry.getValue(), deadline);
+        }
+        return URI.create("http://localhost:" + config.getGatewayPort());
+    }
+
+    private void start(String service) throws IOException {
+        Path jar = config.getProjectDir().resolve(service).resolve("target").resolve(service + "-exec.jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Executable jar not found: " + jar.toAbsolutePath()
+                    + " (run mvn -f " + service + "/pom.xml package -DskipTests first)");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(config.getJavaOptions());
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+        command.addAll(arguments(service));
+
+        Path log = config.getLogDir().resolve(service + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        processes.put(service, process);
+        System.out.printf("Started %s on port %d (pid %d, log %s)%n",
+                service, ports.get(service), process.pid(), log);
+    }
+
+    private List<String> arguments(String service) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=" + ports.get(service));
+        args.add("--spring.profiles.active=prod");
+        args.add("--spring.cloud.nacos.discovery.enabled=false");
+        args.add("--spring.cloud.nacos.config.enabled=false");
+        args.add("--spring.cloud.service-registry.auto-registration.enabled=false");
+        for (Map.Entry<String, Integer> entry : ports.entrySet()) {
+            if (!entry.getKey().equals(GATEWAY)) {
+                args.add("--spring.cloud.discovery.client.simple.instances." + entry.getKey()
+                        + "[0].uri=http://localhost:" + entry.getValue());
+            }
+        }
+        if (service.equals(GATEWAY)) {
+            args.addAll(config.getGatewayArgs());
+        } else {
+            args.add("--spring.datasource.url=jdbc:h2:mem:" + service + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=");
+            args.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        }
+        args.addAll(config.getServiceArgs());
+        return args;
+    }
+
+    private void awaitHealthy(String service, int port, long deadline) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (System.nanoTime() < deadline) {
+            Process process = processes.get(service);
+            if (!process.isAlive()) {
+                throw new IllegalStateException(service + " exited with code " + process.exitValue()
+                        + ", see " + config.getLogDir().resolve(service + ".log"));
+            }
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.printf("%s is up%n", service);
+                    return;
+                }
+            } catch (IOException e) {
+                // 尚未开始监听
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(service + " did not become healthy within " + config.getStartupTimeout()
+                + ", see " + config.getLogDir().resolve(service + ".log"));
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Process process : processes.values()) {
+            process.destroy();
+        }
+        for (Map.Entry<String, Process> entry : processes.entrySet()) {
+            try {
+                if (!entry.getValue().waitFor(15, TimeUnit.SECONDS)) {
+                    entry.getValue().destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                entry.getValue().destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.zjgsu.wy.loadtest;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * 虚拟学生：登录账号、学号、当前 Token 以及已选课程的选课记录 ID
+ */
+public class VirtualUser {
+
+    private final String username;
+
+    private final String password;
+
+    private final String studentId;
+
+    private volatile String token;
+
+    private final ConcurrentLinkedDeque<String> enrollmentIds = new ConcurrentLinkedDeque<>();
+
+    public VirtualUser(String username, String password, String studentId) {
+        this.username = username;
+        this.password = password;
+        this.studentId = studentId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public void addEnrollment(String enrollmentId) {
+        enrollmentIds.addLast(enrollmentId);
+    }
+
+    /**
+     * 取出一条选课记录用于退课，没有时返回 null
+     */
+    public String pollEnrollment() {
+        return enrollmentIds.pollFirst();
+    }
+}
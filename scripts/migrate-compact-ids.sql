@@ -0,0 +1,31 @@
+-- 主键迁移：UUID -> snowflake 定长字符串 ID（MySQL）
+--
+-- 新记录的主键由 SnowflakeIdGenerator 生成，19 位十进制字符串、按时间递增；
+-- 旧记录的 UUID（36 位）保持不变，两种 ID 共存于同一 VARCHAR 列，接口和已发出的链接不受影响，
+-- 因此不需要改写任何数据。
+--
+-- 以下语句只收紧已有库中的列定义（ddl-auto=update 不会修改已存在的列），
+-- 使其与实体映射一致：主键和课程 ID 列为 VARCHAR(36)，学号列为 VARCHAR(50)。
+-- 大表上的 ALTER 会重建表，请在低峰期执行，或使用 pt-online-schema-change / gh-ost。
+-- 执行前先确认没有超长的值：
+--   SELECT MAX(CHAR_LENGTH(id)) FROM courses;   -- 应 <= 36
+
+-- catalog_db
+USE catalog_db;
+ALTER TABLE courses
+    MODIFY id VARCHAR(36) NOT NULL;
+
+-- enrollment_db
+USE enrollment_db;
+ALTER TABLE students
+    MODIFY id VARCHAR(36) NOT NULL;
+ALTER TABLE enrollments
+    MODIFY id VARCHAR(36) NOT NULL,
+    MODIFY course_id VARCHAR(36) NOT NULL,
+    MODIFY student_id VARCHAR(50) NOT NULL;
+ALTER TABLE seat_release_outbox
+    MODIFY id VARCHAR(36) NOT NULL,
+    MODIFY course_id VARCHAR(36) NOT NULL;
+
+-- 迁移后新插入的行按主键顺序追加，旧 UUID 行造成的页分裂碎片可在低峰期整理：
+--   OPTIMIZE TABLE enrollment_db.enrollments;
@@ -110,7 +110,7 @@ test_endpoint "获取所有课程" "GET" "$CATALOG_URL/api/courses"
 # 保存课程ID用于后续测试
 echo "获取课程ID..."
 COURSE_RESPONSE=$(curl -s "$CATALOG_URL/api/courses")
-COURSE_ID=$(echo "$COURSE_RESPONSE" | jq -r '.data[0].id')
+COURSE_ID=$(echo "$COURSE_RESPONSE" | jq -r '.data.items[0].id')
 echo "课程ID: $COURSE_ID"
 echo ""
 
@@ -226,7 +226,7 @@ echo "=========================================="
 
 # 获取选课记录ID
 ENROLLMENT_RESPONSE=$(curl -s "$ENROLLMENT_URL/api/enrollments")
-ENROLLMENT_ID=$(echo "$ENROLLMENT_RESPONSE" | jq -r '.data[0].id')
+ENROLLMENT_ID=$(echo "$ENROLLMENT_RESPONSE" | jq -r '.data.items[0].id')
 
 if [ "$ENROLLMENT_ID" != "null" ] && [ -n "$ENROLLMENT_ID" ]; then
     test_endpoint "学生退课" "DELETE" "$ENROLLMENT_URL/api/enrollments/$ENROLLMENT_ID"
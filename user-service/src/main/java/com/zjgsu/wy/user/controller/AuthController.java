@@ -2,17 +2,22 @@ package com.zjgsu.wy.user.controller;
 
 import com.zjgsu.wy.user.dto.LoginRequest;
 import com.zjgsu.wy.user.dto.LoginResponse;
+import com.zjgsu.wy.user.exception.HashingCapacityExceededException;
 import com.zjgsu.wy.user.model.User;
 import com.zjgsu.wy.user.repository.UserRepository;
+import com.zjgsu.wy.user.service.PasswordHashingService;
 import com.zjgsu.wy.user.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 认证控制器
@@ -26,38 +31,63 @@ public class AuthController {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final PasswordHashingService passwordHashingService;
+
+    /**
+     * 哈希完成后的后续处理（数据库读写、JWT 签名）在应用任务线程池中执行，不占用有界的哈希线程
+     */
+    private final AsyncTaskExecutor applicationTaskExecutor;
 
     /**
      * 用户登录
+     * 密码校验在独立的哈希线程池中执行，Tomcat 线程立即释放；哈希队列已满时快速返回 503。
+     * 校验完成后的重新哈希登记和 JWT 签名切换到应用任务线程池执行
      * @param request 登录请求（用户名和密码）
      * @return Token 和用户信息
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        log.info("Login attempt for username: {}", request.getUsername());
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        log.debug("Login attempt for username: {}", request.getUsername());
         
-        // 1. 验证用户名和密码
+        // 1. 查询用户（用户不存在时也做一次哈希比对，保持耗时一致）
         User user = userRepository.findByUsername(request.getUsername())
                 .orElse(null);
+        String storedPassword = user != null ? user.getPassword() : null;
         
-        if (user == null || !user.getPassword().equals(request.getPassword())) {
-            log.warn("Login failed for username: {}", request.getUsername());
-            Map<String, String> error = new HashMap<>();
-            error.put("message", "用户名或密码错误");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        CompletableFuture<Boolean> verification;
+        try {
+            verification = passwordHashingService.matches(request.getPassword(), storedPassword);
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Login rejected, password hashing queue is full: {}", request.getUsername());
+            return CompletableFuture.completedFuture(serviceBusy("登录请求过多，请稍后重试"));
         }
         
-        // 2. 生成 JWT Token
-        String token = jwtUtil.generateToken(
-                user.getId().toString(),
-                user.getUsername(),
-                user.getRole() != null ? user.getRole() : "USER"
-        );
-        
-        log.info("Login successful for user: {} (ID: {})", user.getUsername(), user.getId());
-        
-        // 3. 返回 Token 和用户信息
-        return ResponseEntity.ok(new LoginResponse(token, user));
+        return verification.thenApplyAsync(matched -> {
+            // 2. 验证用户名和密码
+            if (!matched) {
+                log.warn("Login failed for username: {}", request.getUsername());
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "用户名或密码错误");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            }
+            
+            // 3. 明文或 cost 过低的密码，登录成功后透明地重新哈希
+            if (passwordHashingService.needsRehash(storedPassword)) {
+                rehash(user, request.getPassword());
+            }
+            
+            // 4. 生成 JWT Token
+            String token = jwtUtil.generateToken(
+                    user.getId().toString(),
+                    user.getUsername(),
+                    user.getRole() != null ? user.getRole() : "USER"
+            );
+            
+            log.debug("Login successful for user: {} (ID: {})", user.getUsername(), user.getId());
+            
+            // 5. 返回 Token 和用户信息
+            return ResponseEntity.ok(new LoginResponse(token, user));
+        }, applicationTaskExecutor);
     }
 
     /**
@@ -66,21 +96,27 @@ public class AuthController {
      * @return 注册结果
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
-        log.info("Register attempt for username: {}", user.getUsername());
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody User user) {
+        log.debug("Register attempt for username: {}", user.getUsername());
         
         // 检查用户名是否已存在
         if (userRepository.existsByUsername(user.getUsername())) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "用户名已存在");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
         }
         
         // 检查邮箱是否已存在
         if (user.getEmail() != null && userRepository.existsByEmail(user.getEmail())) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "邮箱已被使用");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
+        }
+        
+        if (user.getPassword() == null || user.getPassword().isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "密码不能为空");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error));
         }
         
         // 设置默认角色
@@ -88,18 +124,30 @@ public class AuthController {
             user.setRole("USER");
         }
         
-        // 保存用户
-        User savedUser = userRepository.save(user);
-        log.info("User registered successfully: {} (ID: {})", savedUser.getUsername(), savedUser.getId());
-        
-        // 生成 Token
-        String token = jwtUtil.generateToken(
-                savedUser.getId().toString(),
-                savedUser.getUsername(),
-                savedUser.getRole()
-        );
+        CompletableFuture<String> hashed;
+        try {
+            hashed = passwordHashingService.hash(user.getPassword());
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Register rejected, password hashing queue is full: {}", user.getUsername());
+            return CompletableFuture.completedFuture(serviceBusy("注册请求过多，请稍后重试"));
+        }
         
-        return ResponseEntity.ok(new LoginResponse(token, savedUser));
+        // 保存用户和签发 Token 在应用任务线程池中执行，不占用哈希线程
+        return hashed.thenApplyAsync(hash -> {
+            // 保存用户
+            user.setPassword(hash);
+            User savedUser = userRepository.save(user);
+            log.info("User registered successfully: {} (ID: {})", savedUser.getUsername(), savedUser.getId());
+            
+            // 生成 Token
+            String token = jwtUtil.generateToken(
+                    savedUser.getId().toString(),
+                    savedUser.getUsername(),
+                    savedUser.getRole()
+            );
+            
+            return ResponseEntity.ok(new LoginResponse(token, savedUser));
+        }, applicationTaskExecutor);
     }
 
     /**
@@ -115,7 +163,7 @@ public class AuthController {
         // 创建管理员用户
         User admin = new User();
         admin.setUsername("admin");
-        admin.setPassword("admin123");
+        admin.setPassword(passwordHashingService.hash("admin123").join());
         admin.setRole("ADMIN");
         admin.setEmail("admin@example.com");
         admin.setRealName("管理员");
@@ -124,7 +172,7 @@ public class AuthController {
         // 创建普通用户
         User user = new User();
         user.setUsername("user");
-        user.setPassword("user123");
+        user.setPassword(passwordHashingService.hash("user123").join());
         user.setRole("USER");
         user.setEmail("user@example.com");
         user.setRealName("普通用户");
@@ -133,4 +181,32 @@ public class AuthController {
         log.info("Test users created: admin, user");
         return ResponseEntity.ok("Test users created successfully");
     }
+
+    /**
+     * 登录成功后异步重新哈希密码；哈希队列已满时跳过，下次登录再升级
+     */
+    private void rehash(User user, String rawPassword) {
+        try {
+            passwordHashingService.hash(rawPassword)
+                    .thenAcceptAsync(hash -> userRepository.updatePassword(user.getId(), hash),
+                            applicationTaskExecutor)
+                    .whenComplete((ignored, ex) -> {
+                        if (ex != null) {
+                            log.warn("Password rehash failed for user: {}", user.getUsername(), ex);
+                        } else {
+                            log.info("Password rehashed for user: {}", user.getUsername());
+                        }
+                    });
+        } catch (HashingCapacityExceededException e) {
+            log.debug("Skip password rehash, hashing queue is full: {}", user.getUsername());
+        }
+    }
+
+    private ResponseEntity<?> serviceBusy(String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", message);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
 }
@@ -0,0 +1,10 @@
+package com.zjgsu.wy.user.exception;
+
+/**
+ * 密码哈希线程池队列已满异常，调用方应快速返回 503
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+    public HashingCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
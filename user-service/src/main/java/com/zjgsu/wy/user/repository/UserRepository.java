@@ -2,7 +2,11 @@ package com.zjgsu.wy.user.repository;
 
 import com.zjgsu.wy.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -31,4 +35,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * 判断邮箱是否存在
      */
     boolean existsByEmail(String email);
+
+    /**
+     * 只更新密码字段（登录时重新哈希使用），避免用旧的实体快照覆盖其他字段
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -0,0 +1,129 @@
+package com.zjgsu.wy.user.service;
+
+import com.zjgsu.wy.user.exception.HashingCapacityExceededException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希服务
+ *
+ * BCrypt 计算是 CPU 密集型操作，统一放到独立的有界线程池中执行，不占用 Tomcat 线程；
+ * 队列满时立即拒绝（HashingCapacityExceededException），由调用方快速返回 503，
+ * 避免开学选课时的登录洪峰拖垮 user-service 的其他接口。
+ */
+@Service
+@Slf4j
+public class PasswordHashingService {
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 用户不存在时参与比对的哈希，使两种失败的耗时一致，避免通过响应时间枚举用户名
+     */
+    private final String dummyHash;
+
+    public PasswordHashingService(@Value("${password.hashing.bcrypt-strength:10}") int strength,
+                                  @Value("${password.hashing.pool-size:0}") int poolSize,
+                                  @Value("${password.hashing.queue-capacity:64}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+        log.info("Password hashing pool started: threads={}, queueCapacity={}, bcryptStrength={}",
+                threads, queueCapacity, strength);
+    }
+
+    /**
+     * 异步计算密码哈希
+     * @param rawPassword 明文密码
+     * @return BCrypt 哈希
+     * @throws HashingCapacityExceededException 哈希队列已满
+     */
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * 异步校验密码
+     * @param rawPassword 明文密码
+     * @param storedPassword 数据库中保存的密码（BCrypt 哈希或迁移前的明文），为 null 表示用户不存在
+     * @return 是否匹配
+     * @throws HashingCapacityExceededException 哈希队列已满
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String storedPassword) {
+        return submit(() -> {
+            if (rawPassword == null) {
+                return false;
+            }
+            if (storedPassword == null) {
+                encoder.matches(rawPassword, dummyHash);
+                return false;
+            }
+            if (!isHashed(storedPassword)) {
+                // 迁移前以明文保存的密码，登录成功后会被重新哈希
+                return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                        storedPassword.getBytes(StandardCharsets.UTF_8));
+            }
+            return encoder.matches(rawPassword, storedPassword);
+        });
+    }
+
+    /**
+     * 判断已保存的密码是否需要重新哈希（明文或 cost 低于当前配置）
+     */
+    public boolean needsRehash(String storedPassword) {
+        return !isHashed(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static boolean isHashed(String storedPassword) {
+        return storedPassword.startsWith("$2a$")
+                || storedPassword.startsWith("$2b$")
+                || storedPassword.startsWith("$2y$");
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new HashingCapacityExceededException("密码哈希队列已满", e);
+        }
+    }
+
+    /**
+     * 哈希线程命名，便于在线程转储中定位
+     */
+    private static class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
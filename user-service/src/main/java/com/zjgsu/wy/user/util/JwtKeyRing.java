@@ -0,0 +1,86 @@
+package com.zjgsu.wy.user.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT 密钥环
+ *
+ * 启动时一次性派生全部 HMAC 密钥，按 Token 头中的 kid 选择验证密钥；
+ * 未携带 kid 的 Token 使用 default 密钥验证。
+ */
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    public static final String DEFAULT_KID = "default";
+
+    private final Map<String, SecretKey> keys;
+
+    private final String activeKid;
+
+    private final SecretKey activeKey;
+
+    public JwtKeyRing(JwtProperties properties) {
+        Map<String, SecretKey> derived = new LinkedHashMap<>();
+        if (properties.getSecret() != null) {
+            derived.put(DEFAULT_KID, deriveKey(properties.getSecret()));
+        }
+        properties.getKeys().forEach((kid, secret) -> derived.put(kid, deriveKey(secret)));
+        if (derived.isEmpty()) {
+            throw new IllegalStateException("No JWT signing key configured (jwt.secret or jwt.keys)");
+        }
+
+        this.keys = Collections.unmodifiableMap(derived);
+        this.activeKid = properties.getActiveKid() != null ? properties.getActiveKid() : DEFAULT_KID;
+        this.activeKey = keys.get(activeKid);
+        if (activeKey == null) {
+            throw new IllegalStateException("JWT active kid not found in configured keys: " + activeKid);
+        }
+    }
+
+    /**
+     * 签发新 Token 使用的 kid
+     */
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    /**
+     * 签发新 Token 使用的密钥
+     */
+    public SecretKey getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * jjwt 0.11 的 SigningKeyResolver 以原始类型声明 JwsHeader 参数，覆盖时必须保持一致，
+     * 这里只做转发，按 kid 选择密钥在 {@link #resolveKey(JwsHeader)} 中完成
+     */
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolveKey(header);
+    }
+
+    private SecretKey resolveKey(JwsHeader<?> header) {
+        String kid = header.getKeyId() != null ? header.getKeyId() : DEFAULT_KID;
+        SecretKey key = keys.get(kid);
+        if (key == null) {
+            throw new JwtException("Unknown JWT key id: " + kid);
+        }
+        return key;
+    }
+
+    private static SecretKey deriveKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
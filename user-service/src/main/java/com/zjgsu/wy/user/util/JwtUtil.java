@@ -1,11 +1,10 @@
 package com.zjgsu.wy.user.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.Date;
@@ -13,16 +12,27 @@ import java.util.Date;
 /**
  * JWT 工具类
  * 负责 Token 的生成、解析和验证
+ *
+ * 密钥和解析器在构造时一次性创建并在所有请求间复用（JwtParser 不可变、线程安全），
+ * 验证密钥按 Token 头中的 kid 从 JwtKeyRing 选择，支持密钥轮换。
  */
 @Component
 @Slf4j
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final long expiration;
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final JwtKeyRing keyRing;
+
+    private final JwtParser parser;
+
+    public JwtUtil(JwtProperties properties) {
+        this.expiration = properties.getExpiration();
+        this.keyRing = new JwtKeyRing(properties);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .build();
+    }
 
     /**
      * 生成 JWT Token
@@ -36,12 +46,13 @@ public class JwtUtil {
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
+                .setHeaderParam("kid", keyRing.getActiveKid())
                 .setSubject(userId)
                 .claim("username", username)
                 .claim("role", role)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS512)
+                .signWith(keyRing.getActiveKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -52,11 +63,7 @@ public class JwtUtil {
      */
     public Claims parseToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes()))
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             log.error("Failed to parse JWT token: {}", e.getMessage());
             return null;